@@ -0,0 +1,68 @@
+package client.main;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import MessagesBase.ETerrain;
+import MessagesGameState.EFortState;
+import MessagesGameState.EPlayerPositionState;
+import MessagesGameState.ETreasureState;
+import MessagesGameState.FullMapNode;
+
+/*
+ * Maps the benchmarks work on. They are random but built from a fixed seed, so
+ * every run and every implementation that is compared sees the same maps. The
+ * player stands in the top left corner, the enemy fortress is in the bottom
+ * right corner and a few fields are water.
+ */
+public class BenchmarkMaps {
+	private static final long SEED = 42;
+
+	/**
+	 * Method that sets the size of the map used by the client and builds a map of
+	 * that size
+	 *
+	 * @param layout width and height of the map, e.g. "8x8"
+	 * @return the Map
+	 */
+	public static Map create(String layout) {
+		return new MapConverter().convertToMap(nodes(layout));
+	}
+
+	/**
+	 * Method that sets the size of the map used by the client and builds the
+	 * FullMapNodes of a map of that size, the way the server sends them
+	 *
+	 * @param layout width and height of the map, e.g. "8x8"
+	 * @return the FullMapNodes of the map
+	 */
+	public static Set<FullMapNode> nodes(String layout) {
+		String[] size = layout.split("x");
+		int width = Integer.parseInt(size[0]);
+		int height = Integer.parseInt(size[1]);
+		Global.setMaxX(width);
+		Global.setMaxY(height);
+		Random random = new Random(SEED);
+		Set<FullMapNode> nodes = new HashSet<>();
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				boolean start = x == 0 && y == 0;
+				boolean goal = x == width - 1 && y == height - 1;
+				ETerrain terrain = ETerrain.Grass;
+				int roll = random.nextInt(100);
+				if (!start && !goal && roll < 10)
+					terrain = ETerrain.Water;
+				else if (!start && !goal && roll < 30)
+					terrain = ETerrain.Mountain;
+				nodes.add(new FullMapNode(terrain,
+						start ? EPlayerPositionState.MyPosition : EPlayerPositionState.NoPlayerPresent,
+						ETreasureState.NoOrUnknownTreasureState,
+						start ? EFortState.MyFortPresent
+								: goal ? EFortState.EnemyFortPresent : EFortState.NoOrUnknownFortState,
+						x, y));
+			}
+		}
+		return nodes;
+	}
+}
@@ -0,0 +1,70 @@
+package client.main;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/*
+ * Measures generating the HalfMap of the client. The HalfMap is always 8x4 and
+ * drawn from the random generators of the client, so it can't use a fixed seed.
+ * The constructive generator is compared with the loop it replaced, which drew
+ * every field at random and started over until the map followed the rules. The
+ * passes needed per map are reported as the attempts counter next to the time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GenerateMapBenchmark {
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Attempts {
+		public long attempts;
+		public long maps;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			this.attempts = 0;
+			this.maps = 0;
+		}
+	}
+
+	@Setup
+	public void setSize() {
+		Global.setMaxX(8);
+		Global.setMaxY(4);
+	}
+
+	@Benchmark
+	public Map generate(Attempts counter) {
+		GenerateMap generator = new GenerateMap();
+		counter.attempts += generator.getAttempts();
+		counter.maps++;
+		return generator.getMap();
+	}
+
+	@Benchmark
+	public Terrain[] rejectionSampling(Attempts counter) {
+		Terrain[] terrains = new Terrain[32];
+		int fortress;
+		do {
+			counter.attempts++;
+			fortress = -1;
+			for (int index = 0; index < terrains.length; index++) {
+				terrains[index] = Terrain.getRandomTerrain();
+				if (fortress < 0 && terrains[index] == Terrain.Grass && Math.random() < 0.3)
+					fortress = index;
+			}
+		} while (!GenerateMap.check(terrains, fortress));
+		counter.maps++;
+		return terrains;
+	}
+}
@@ -0,0 +1,57 @@
+package client.main;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import MessagesBase.HalfMap;
+import MessagesBase.UniquePlayerIdentifier;
+import MessagesGameState.FullMapNode;
+
+/*
+ * Measures converting maps from and to the network messages.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MapBenchmark {
+	@Param({ "8x8", "16x4", "32x32", "64x64" })
+	public String layout;
+
+	private MapConverter converter;
+	private Set<FullMapNode> nodes;
+	private Map map;
+	private UniquePlayerIdentifier playerID;
+
+	@Setup
+	public void createMap() {
+		this.converter = new MapConverter();
+		this.nodes = BenchmarkMaps.nodes(this.layout);
+		this.map = this.converter.convertToMap(this.nodes);
+		this.playerID = new UniquePlayerIdentifier("player");
+	}
+
+	@Benchmark
+	public Map convertToMap() {
+		return this.converter.convertToMap(this.nodes);
+	}
+
+	@Benchmark
+	public List<Point> updateMap() {
+		return this.converter.updateMap(this.map, this.nodes);
+	}
+
+	@Benchmark
+	public HalfMap convertToHalfMap() {
+		return this.converter.convertToHalfMap(this.playerID, this.map);
+	}
+}
@@ -0,0 +1,78 @@
+package client.main;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/*
+ * Measures the decisions the client takes every turn: the shortest paths from
+ * the player, the path to the enemy fortress and the path to the nearest
+ * mountain, searched every turn or looked up in the DistanceTable. Besides
+ * the two real layouts larger grids show how the search scales, the table of
+ * the 64x64 grid takes 128MB.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PathfindingBenchmark {
+	@Param({ "8x8", "16x4", "32x32", "64x64" })
+	public String layout;
+
+	private Map map;
+	private Point start;
+	private Point goal;
+	private DistanceTable distanceTable;
+
+	@Setup
+	public void createMap() {
+		this.map = BenchmarkMaps.create(this.layout);
+		this.start = this.map.getCurrentPosition();
+		this.goal = this.map.getEnemyFortressPosition();
+		this.distanceTable = new DistanceTable(this.map);
+	}
+
+	@Benchmark
+	public Dijkstra runDijkstra() {
+		Dijkstra dijkstra = new Dijkstra();
+		dijkstra.runDijkstra(this.map, this.start);
+		return dijkstra;
+	}
+
+	@Benchmark
+	public ArrayList<Direction> shortestPathTo() {
+		return new Movement(this.map, this.start).shortestPathTo(this.goal);
+	}
+
+	@Benchmark
+	public ArrayList<Direction> shortestPathToGoalDirected() {
+		return new Movement(this.map, this.start).shortestPathTo(this.goal, true);
+	}
+
+	@Benchmark
+	public ArrayList<Direction> findNearestMountain() {
+		return new Movement(this.map, this.start).findNearestMountain();
+	}
+
+	@Benchmark
+	public DistanceTable buildDistanceTable() {
+		return new DistanceTable(this.map);
+	}
+
+	@Benchmark
+	public ArrayList<Direction> shortestPathToFromTable() {
+		return new Movement(this.map, this.start, this.distanceTable).shortestPathTo(this.goal);
+	}
+
+	@Benchmark
+	public ArrayList<Direction> findNearestMountainFromTable() {
+		return new Movement(this.map, this.start, this.distanceTable).findNearestMountain();
+	}
+}
@@ -1,10 +1,14 @@
 package client.main;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
+import java.util.Set;
 
 import org.slf4j.LoggerFactory;
 
+import MessagesGameState.FullMapNode;
+
 import client.exceptions.InvalidArgumentsException;
 import client.exceptions.InvalidMapException;
 import client.exceptions.InvalidMoveException;
@@ -12,6 +16,7 @@ import client.exceptions.InvalidMoveException;
 public class Controller {
 	private GameStatus model;
 	private Network network;
+	private DistanceTable distanceTable;
 	private static org.slf4j.Logger logger = LoggerFactory.getLogger(Controller.class);
 
 	/**
@@ -41,6 +46,7 @@ public class Controller {
 			String playerID = this.network.registerPlayer(p);
 			p.setPlayerID(playerID);
 			this.model.setPlayer(p);
+			this.network.openGameStateStream(p);
 		} catch (InvalidArgumentsException e) {
 			logger.error(e.getMessage());
 			Scanner sc = new Scanner(System.in);
@@ -63,15 +69,19 @@ public class Controller {
 
 	/**
 	 * Method that starts the map generation and sends it to the server The method
-	 * creates a GenerateMap object that automatically generates a map the map is
-	 * sent to the server with the possibility of an InvalidMapException to occur,
-	 * the exception shows how the map was invalid, the next step is to get the full
-	 * map after both players have sent their map, that is checked with the size of
-	 * the map
+	 * creates a HalfMapSearch object that generates many maps on all cores and
+	 * keeps the best one within its time budget, the map is sent to the server
+	 * with the possibility of an InvalidMapException to occur, the exception shows
+	 * how the map was invalid, the next step is to get the full map after both
+	 * players have sent their map, that is checked with the size of the map. As
+	 * the terrain of the full map doesn't change anymore, the shortest paths
+	 * between all of its fields are searched once right away
 	 */
 	public void generateMap() {
-		GenerateMap generate = new GenerateMap();
-		Map map = generate.getMap();
+		HalfMapSearch search = new HalfMapSearch();
+		Map map = search.search();
+		logger.info("Scored " + search.getEvaluated() + " HalfMaps in " + search.getElapsedMillis() + "ms ("
+				+ Math.round(search.getCandidatesPerSecond()) + " per second), best score " + search.getBestScore());
 		while (this.model.getState() == StateOfPlayer.ShouldWait) {
 			this.updatePlayerStatus();
 		}
@@ -84,16 +94,32 @@ public class Controller {
 		do {
 			map = network.getFullMap(this.model.getPlayer());
 		} while (map.getMap().size() != 64);
+		this.distanceTable = new DistanceTable(map);
+		logger.info("Distance table of " + map.getMap().size() + " fields takes "
+				+ this.distanceTable.getMemoryFootprint() / 1024 + "KB");
 		this.model.setMap(map);
 		this.updatePlayerStatus();
 	}
 
 	/**
 	 * Method that updates the map stored in the model with the received map from
-	 * the server
+	 * the server. Only the fields that differ from the ones in the model are
+	 * changed, the map is only converted again if it doesn't fit the model anymore
+	 * 
+	 * @return whether anything on the map changed
 	 */
-	public void updateMap() {
-		this.model.updateMap(this.network.getFullMap(this.model.getPlayer()));
+	public boolean updateMap() {
+		Set<FullMapNode> nodes = this.network.getFullMapNodes(this.model.getPlayer());
+		if (nodes.isEmpty())
+			return false;
+		MapConverter converter = new MapConverter();
+		List<Point> changed = converter.updateMap(this.model.getMap(), nodes);
+		if (changed == null) {
+			this.model.updateMap(converter.convertToMap(nodes));
+			return true;
+		}
+		this.model.updateFields(changed);
+		return !changed.isEmpty();
 	}
 
 	/**
@@ -122,9 +148,8 @@ public class Controller {
 					logger.error(e.getMessage());
 					System.exit(0);
 				}
-				this.updateMap();
-
-				movement.setMap(this.model.getMap());
+				if (this.updateMap())
+					movement.setMap(this.model.getMap());
 			}
 		}
 	}
@@ -133,7 +158,7 @@ public class Controller {
 	 * Method that moves the player to a given Point p, the method is called with
 	 * either the Point where the treasure is or the enemy fortress. List of
 	 * directions is generated from the shortestPathTo method in movement that with
-	 * the help of Dijkstra's algorithm gives the shortest path to the Point p the
+	 * the help of the A* algorithm gives the shortest path to the Point p the
 	 * method iterates over the directions and tries to send them to the map if its
 	 * their turn to move if a direction is invalid an IllegalMoveException would be
 	 * received giving information on how the move is invalid after every move the
@@ -144,7 +169,7 @@ public class Controller {
 	 *                 well as the instance of Dijkstra storing the shortest paths
 	 */
 	public void goTo(Point p, Movement movement) {
-		ArrayList<Direction> directions = movement.shortestPathTo(p);
+		ArrayList<Direction> directions = movement.shortestPathTo(p, true);
 		for (Direction d : directions) {
 			while (this.model.getState() != StateOfPlayer.ShouldActNext) {
 				this.updatePlayerStatus();
@@ -156,8 +181,8 @@ public class Controller {
 				logger.error(e.getMessage());
 				System.exit(0);
 			}
-			this.updateMap();
-			movement.setMap(this.model.getMap());
+			if (this.updateMap())
+				movement.setMap(this.model.getMap());
 		}
 	}
 
@@ -187,8 +212,8 @@ public class Controller {
 					e.printStackTrace();
 					logger.error(e.getMessage());
 				}
-				this.updateMap();
-				movement.setMap(this.model.getMap());
+				if (this.updateMap())
+					movement.setMap(this.model.getMap());
 			}
 		}
 	}
@@ -208,7 +233,8 @@ public class Controller {
 	public void play() {
 		this.generateMap();
 		View view = new View(this.model);
-		Movement movement = new Movement(this.model.getMap(), this.model.getMap().getCurrentPosition());
+		Movement movement = new Movement(this.model.getMap(), this.model.getMap().getCurrentPosition(),
+				this.distanceTable);
 
 		this.searchTreasure(movement);
 		Point treasureLocation = model.getTreasurePosition();
@@ -217,6 +243,6 @@ public class Controller {
 		this.searchEnemyFortress(movement);
 		Point enemyFortressLocation = this.model.getEnemyFortressPosition();
 		this.goTo(enemyFortressLocation, movement);
-
+		this.network.closeGameStateStream();
 	}
 }
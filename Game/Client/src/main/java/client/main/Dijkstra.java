@@ -1,14 +1,45 @@
 package client.main;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Map.Entry;
+import java.util.Arrays;
 import java.util.Stack;
 
-public class Dijkstra {
-	private ArrayList<Point> points = new ArrayList<>();
-	private HashMap<Point, Integer> distances = new HashMap<>();
-	private HashMap<Point, Point> nearest = new HashMap<>();
+/*
+ * Every field is addressed by its index y * maxX + x. Distances, predecessors
+ * and the costs of the fields are kept in int arrays that are only grown, never
+ * allocated again, so running the algorithm every turn doesn't create garbage.
+ * The fields still to visit are kept in a binary heap that knows where every
+ * field is in it, so a shorter distance moves the field up in place. Fields with
+ * the same distance are taken in the order in which the map returns them, as
+ * the list of the old implementation did, so the paths don't change.
+ *
+ * For a single goal the search can also run as A*: the heap is then ordered by
+ * the distance plus an estimate of the rest of the way, the Manhattan distance
+ * times the cheapest step there is, and the search stops once the goal is
+ * reached. The estimate is never too high, so the path is still a shortest one,
+ * but far fewer fields are visited.
+ */
+public class Dijkstra implements ShortestPaths {
+	private static final int NOT_IN_HEAP = -1;
+	private static final int NOT_ON_MAP = -2;
+	// cheapest step there is, leaving and entering grass
+	private static final int MIN_STEP = minStep();
+
+	private int width;
+	private int height;
+	private int fields;
+	private int start = -1;
+	private int[] distances = new int[0];
+	private int[] nearest = new int[0];
+	private int[] leave = new int[0];
+	private int[] enter = new int[0];
+	// order in which the map returns the field, breaks ties between distances
+	private int[] order = new int[0];
+	private int[] heap = new int[0];
+	private int[] heapPosition = new int[0];
+	private int heapSize;
+	// goal of an A* search, -1 if all shortest paths are searched
+	private int goal = -1;
+	private int expanded;
 
 	/**
 	 * Constructor of the Dijkstra class
@@ -16,88 +47,270 @@ public class Dijkstra {
 	public Dijkstra() {}
 
 	/**
-	 * Resets the values stored in points, distances and nearest in order to execute
-	 * dijkstra again if needed
+	 * Resets the stored distances and paths in order to execute dijkstra again if
+	 * needed, the arrays are kept for the next run
 	 */
 	public void clear() {
-		this.points.clear();
-		this.distances.clear();
-		this.nearest.clear();
+		this.start = -1;
+		this.goal = -1;
+		this.heapSize = 0;
 	}
 
-	/**
-	 * Method that searches and returns the Point with shortest distance
-	 * 
-	 * @return Point with shortest distance
-	 */
-	private Point shortestDistance() {
-		Point shortest = this.points.get(0);
-		for (Point p : this.points) {
-			if (this.distances.get(p) < this.distances.get(shortest))
-				shortest = p;
+	private static int minStep() {
+		int leave = Integer.MAX_VALUE;
+		int enter = Integer.MAX_VALUE;
+		for (Terrain terrain : Terrain.values()) {
+			leave = Math.min(leave, terrain.getRequiredToLeave());
+			enter = Math.min(enter, terrain.getRequiredToEnter());
 		}
-		return shortest;
+		return leave + enter;
 	}
 
 	/**
 	 * Implementation of the Dijkstra algorithm giving us the shortest distances and
-	 * paths from and to every point in the map. First put every Point into the List
-	 * of Points, Hashmap nearest with a null as a nearest point and distances with
-	 * Max_Value of integer, Instantiate that the distance to the current point is
-	 * 0, the algorithms starts with the point with shortest distance and goes over
-	 * all of its valid neighbors and checks the required steps needed to enter
-	 * them, if the distance is shorter than the one stored in the distances Hashmap
-	 * replace it and put the nearest point to it as p
-	 * 
+	 * paths from the current point to every point in the map. Every field of the
+	 * map is put into the heap with MAX_VALUE as distance, only the current point
+	 * has 0. The algorithm takes the field with shortest distance out of the heap
+	 * and goes over all of its neighbors still in the heap and checks the required
+	 * steps needed to enter them, if the distance is shorter than the stored one it
+	 * is replaced and the field is remembered as the nearest point of the neighbor
+	 *
 	 * @param map             the current Map that the game is played on
 	 * @param currentPosition the currentPosition of the player and starting
 	 *                        position of the algorithm
 	 */
 	public void runDijkstra(Map map, Point currentPosition) {
-		for (Entry<Point, Field> e : map.getMap().entrySet()) {
-			this.distances.put(e.getKey(), Integer.MAX_VALUE);
-			this.nearest.put(e.getKey(), null);
-			this.points.add(e.getKey());
+		this.prepare(map);
+		this.goal = -1;
+		this.search(currentPosition);
+	}
+
+	/**
+	 * Implementation of the A* algorithm giving us the shortest path from the
+	 * current point to a single goal. It works like runDijkstra, but takes the
+	 * field out of the heap whose distance plus estimated rest of the way to the
+	 * goal is the shortest, and stops once the goal is taken out, so only the path
+	 * to the goal can be asked for afterwards.
+	 *
+	 * @param map             the current Map that the game is played on
+	 * @param currentPosition the currentPosition of the player and starting
+	 *                        position of the algorithm
+	 * @param goal            Point where the player wants to get to
+	 */
+	public void runAStar(Map map, Point currentPosition, Point goal) {
+		this.prepare(map);
+		this.goal = this.indexOf(goal);
+		this.search(currentPosition);
+	}
+
+	private void search(Point currentPosition) {
+		this.start = this.indexOf(currentPosition);
+		this.expanded = 0;
+		this.distances[this.start] = 0;
+		this.nearest[this.start] = this.start;
+		this.siftUp(this.heapPosition[this.start]);
+		while (this.heapSize > 0) {
+			int p = this.poll();
+			this.expanded++;
+			if (this.goal >= 0 && (p == this.goal || this.distances[p] == Integer.MAX_VALUE))
+				break;
+			int x = p % this.width;
+			// left, right, up and down, the order of Map.getNeighbors()
+			if (x > 0)
+				this.relax(p, p - 1);
+			if (x < this.width - 1)
+				this.relax(p, p + 1);
+			if (p >= this.width)
+				this.relax(p, p - this.width);
+			if (p + this.width < this.fields)
+				this.relax(p, p + this.width);
 		}
-		this.distances.replace(currentPosition, 0);
-		this.nearest.replace(currentPosition, currentPosition);
-		while (points.size() > 0) {
-			Point p = this.shortestDistance();
-			this.points.remove(p);
-			ArrayList<Point> neighbors = p.getNeighbors();
-			for (Point neighbor : neighbors) {
-				if (this.points.contains(neighbor)) {
-					int alt = this.distances.get(p) + map.getMap().get(p).getTerrain().getRequiredToLeave()
-							+ map.getMap().get(neighbor).getTerrain().getRequiredToEnter();
-					if (alt < this.distances.get(neighbor)) {
-						this.distances.replace(neighbor, alt);
-						this.nearest.replace(neighbor, p);
-					}
-				}
-			}
+	}
+
+	/**
+	 * Fills the arrays with the fields of the map and puts all of them into the
+	 * heap row by row, grows the arrays if the map is bigger than every map before.
+	 * The size is the one of the map, not the one in Global.
+	 *
+	 * @param map the current Map that the game is played on
+	 */
+	private void prepare(Map map) {
+		this.width = map.getWidth();
+		this.height = map.getHeight();
+		this.fields = this.width * this.height;
+		if (this.distances.length < this.fields) {
+			this.distances = new int[this.fields];
+			this.nearest = new int[this.fields];
+			this.leave = new int[this.fields];
+			this.enter = new int[this.fields];
+			this.order = new int[this.fields];
+			this.heap = new int[this.fields];
+			this.heapPosition = new int[this.fields];
+		}
+		Arrays.fill(this.heapPosition, 0, this.fields, NOT_ON_MAP);
+		this.heapSize = 0;
+		for (int index = 0; index < this.fields; index++) {
+			Field field = map.getField(index % this.width, index / this.width);
+			if (field == null)
+				continue;
+			Terrain terrain = field.getTerrain();
+			this.distances[index] = Integer.MAX_VALUE;
+			this.nearest[index] = -1;
+			this.leave[index] = terrain.getRequiredToLeave();
+			this.enter[index] = terrain.getRequiredToEnter();
+			this.order[index] = this.heapSize;
+			this.heap[this.heapSize] = index;
+			this.heapPosition[index] = this.heapSize++;
+		}
+	}
 
+	private void relax(int p, int neighbor) {
+		if (this.heapPosition[neighbor] < 0)
+			return;
+		int alt = this.distances[p] + this.leave[p] + this.enter[neighbor];
+		if (alt < this.distances[neighbor]) {
+			this.distances[neighbor] = alt;
+			this.nearest[neighbor] = p;
+			this.siftUp(this.heapPosition[neighbor]);
 		}
 	}
 
+	/**
+	 * Whether field a is taken out of the heap before field b. With the same
+	 * priority the field that is further from the start goes first, which only
+	 * happens in A*, then the order of the map decides.
+	 */
+	private boolean before(int a, int b) {
+		int priorityA = this.priority(a);
+		int priorityB = this.priority(b);
+		if (priorityA != priorityB)
+			return priorityA < priorityB;
+		if (this.distances[a] != this.distances[b])
+			return this.distances[a] > this.distances[b];
+		return this.order[a] < this.order[b];
+	}
+
+	private int priority(int field) {
+		int distance = this.distances[field];
+		if (this.goal < 0 || distance == Integer.MAX_VALUE)
+			return distance;
+		int manhattan = Math.abs(field % this.width - this.goal % this.width)
+				+ Math.abs(field / this.width - this.goal / this.width);
+		return distance + manhattan * MIN_STEP;
+	}
+
+	private int poll() {
+		int first = this.heap[0];
+		this.heapPosition[first] = NOT_IN_HEAP;
+		int last = this.heap[--this.heapSize];
+		if (this.heapSize > 0) {
+			this.heap[0] = last;
+			this.heapPosition[last] = 0;
+			this.siftDown(0);
+		}
+		return first;
+	}
+
+	private void siftUp(int position) {
+		int field = this.heap[position];
+		while (position > 0) {
+			int parent = (position - 1) / 2;
+			if (!this.before(field, this.heap[parent]))
+				break;
+			this.move(this.heap[parent], position);
+			position = parent;
+		}
+		this.move(field, position);
+	}
+
+	private void siftDown(int position) {
+		int field = this.heap[position];
+		while (2 * position + 1 < this.heapSize) {
+			int child = 2 * position + 1;
+			if (child + 1 < this.heapSize && this.before(this.heap[child + 1], this.heap[child]))
+				child++;
+			if (!this.before(this.heap[child], field))
+				break;
+			this.move(this.heap[child], position);
+			position = child;
+		}
+		this.move(field, position);
+	}
+
+	private void move(int field, int position) {
+		this.heap[position] = field;
+		this.heapPosition[field] = position;
+	}
+
+	/**
+	 * @return number of fields taken out of the heap by the last search
+	 */
+	public int getExpandedFields() {
+		return this.expanded;
+	}
+
+	private int indexOf(Point p) {
+		return p.getY() * this.width + p.getX();
+	}
+
+	private boolean isOnMap(Point p) {
+		return p.getX() >= 0 && p.getX() < this.width && p.getY() >= 0 && p.getY() < this.height;
+	}
+
+	private boolean isReached(int index) {
+		return this.start >= 0 && index >= 0 && index < this.fields && this.heapPosition[index] != NOT_ON_MAP
+				&& this.nearest[index] >= 0;
+	}
+
+	/**
+	 * Method that copies the distances and nearest points of the last search into
+	 * a row of a DistanceTable, fields that weren't reached get MAX_VALUE and -1
+	 *
+	 * @param distances distances of the table
+	 * @param nearest   nearest points of the table
+	 * @param row       where the row of the start field begins
+	 */
+	void copyTo(int[] distances, int[] nearest, int row) {
+		for (int field = 0; field < this.fields; field++) {
+			if (this.isReached(field)) {
+				distances[row + field] = this.distances[field];
+				nearest[row + field] = this.nearest[field];
+			}
+		}
+	}
+
+	/**
+	 * Method that returns the steps needed to get from the start of the last
+	 * search to a field
+	 * 
+	 * @param goal Point where the path ends
+	 * @return the number of steps, MAX_VALUE if goal wasn't reached
+	 */
+	public int getDistanceTo(Point goal) {
+		int u = this.indexOf(goal);
+		if (!this.isOnMap(goal) || !this.isReached(u))
+			return Integer.MAX_VALUE;
+		return this.distances[u];
+	}
+
 	/**
 	 * Method that returns the shortest distance between two fields iterate through
 	 * the nearest point starting with the goal and accumulate their distances
-	 * 
+	 *
 	 * @param currentPosition Point where the player finds himself
 	 * @param goal            Point where the player wants to get to
 	 * @return the shortest distance between currentPosition and goal
 	 */
+	@Override
 	public int getShortestDistanceTo(Point currentPosition, Point goal) {
-		Point u = new Point(goal.getX(), goal.getY());
-		if (distances.get(u) == null)
+		int u = this.indexOf(goal);
+		if (!this.isOnMap(goal) || !this.isReached(u))
 			return Integer.MAX_VALUE;
 		int dist = 0;
-		while (true) {
-			dist += distances.get(u);
-			u = nearest.get(u);
-			if (u == currentPosition)
-				break;
-		}
+		do {
+			dist += this.distances[u];
+			u = this.nearest[u];
+		} while (u != this.start);
 		return dist;
 	}
 
@@ -105,44 +318,22 @@ public class Dijkstra {
 	 * Method that returns a Stack of Points giving the path from the
 	 * currentPosition to the goal, iterate through the nearest point starting with
 	 * the goal and add them to the stack until the currentPosition is reached
-	 * 
+	 *
 	 * @param currentPosition Point where the player finds himself
 	 * @param goal            Point where the players want to get to
-	 * @return the path from currentPosition to goal
+	 * @return the path from currentPosition to goal, empty if the goal can't be
+	 *         reached
 	 */
+	@Override
 	public Stack<Point> pathTo(Point currentPosition, Point goal) {
-		Point u = goal;
 		Stack<Point> path = new Stack<>();
-		while (true) {
-			path.add(u);
-			u = nearest.get(u);
-			if (u == currentPosition)
-				break;
-		}
+		int u = this.indexOf(goal);
+		if (!this.isOnMap(goal) || !this.isReached(u))
+			return path;
+		do {
+			path.add(new Point(u % this.width, u / this.width));
+			u = this.nearest[u];
+		} while (u != this.start);
 		return path;
 	}
-
-	/**
-	 * Method that returns the closest Field made of Mountain to the starting point
-	 * initiate dist and temp as MAX_VALUE in order to search for the closest field
-	 * iterate over the points of mountain fields and find the one closest to
-	 * currentPosition
-	 * 
-	 * @param currentPosition Point where the player finds himself
-	 * @param mountains       List of Point of mountain fields
-	 * @return the Point where the closest mountain is
-	 */
-	public Point closestMountain(Point currentPosition, ArrayList<Point> mountains) {
-		int dist = Integer.MAX_VALUE;
-		int temp = Integer.MAX_VALUE;
-		Point closest = null;
-		for (Point mountain : mountains) {
-			temp = this.getShortestDistanceTo(currentPosition, mountain);
-			if (temp < dist) {
-				dist = temp;
-				closest = mountain;
-			}
-		}
-		return closest;
-	}
 }
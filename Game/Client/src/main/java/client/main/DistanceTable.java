@@ -0,0 +1,119 @@
+package client.main;
+
+import java.util.Arrays;
+import java.util.Stack;
+
+/*
+ * The terrain of the map never changes once both HalfMaps are combined, so the
+ * shortest paths between all fields are searched once, one Dijkstra per field,
+ * when the map arrives. Distances and nearest points are kept in two flat int
+ * arrays, the row of a start field holds what Dijkstra found from it, so a
+ * distance is a single lookup and a path is as long to look up as it is long.
+ * The paths are the same Dijkstra finds.
+ */
+public class DistanceTable implements ShortestPaths {
+	private final int width;
+	private final int height;
+	private final int fields;
+	// index start * fields + goal
+	private final int[] distances;
+	private final int[] nearest;
+
+	/**
+	 * Constructor for DistanceTable, searches the shortest paths from every field
+	 * of the map to every other field
+	 * 
+	 * @param map the Map the game is played on
+	 */
+	public DistanceTable(Map map) {
+		this.width = map.getWidth();
+		this.height = map.getHeight();
+		this.fields = this.width * this.height;
+		this.distances = new int[this.fields * this.fields];
+		this.nearest = new int[this.fields * this.fields];
+		Arrays.fill(this.distances, Integer.MAX_VALUE);
+		Arrays.fill(this.nearest, -1);
+		Dijkstra dijkstra = new Dijkstra();
+		for (Point start : map.getMap().keySet()) {
+			dijkstra.clear();
+			dijkstra.runDijkstra(map, start);
+			dijkstra.copyTo(this.distances, this.nearest, this.indexOf(start) * this.fields);
+		}
+	}
+
+	private int indexOf(Point p) {
+		return p.getY() * this.width + p.getX();
+	}
+
+	private boolean isOnMap(Point p) {
+		return p.getX() >= 0 && p.getX() < this.width && p.getY() >= 0 && p.getY() < this.height;
+	}
+
+	private boolean isReached(Point start, Point goal) {
+		return this.isOnMap(start) && this.isOnMap(goal)
+				&& this.nearest[this.indexOf(start) * this.fields + this.indexOf(goal)] >= 0;
+	}
+
+	/**
+	 * Method that returns the steps needed to get from one field to another
+	 * 
+	 * @param from Point where the path starts
+	 * @param to   Point where the path ends
+	 * @return the number of steps, MAX_VALUE if to can't be reached
+	 */
+	public int getDistance(Point from, Point to) {
+		if (!this.isReached(from, to))
+			return Integer.MAX_VALUE;
+		return this.distances[this.indexOf(from) * this.fields + this.indexOf(to)];
+	}
+
+	@Override
+	public int getShortestDistanceTo(Point currentPosition, Point goal) {
+		if (!this.isReached(currentPosition, goal))
+			return Integer.MAX_VALUE;
+		int row = this.indexOf(currentPosition) * this.fields;
+		int start = this.indexOf(currentPosition);
+		int u = this.indexOf(goal);
+		int dist = 0;
+		do {
+			dist += this.distances[row + u];
+			u = this.nearest[row + u];
+		} while (u != start);
+		return dist;
+	}
+
+	@Override
+	public Stack<Point> pathTo(Point currentPosition, Point goal) {
+		Stack<Point> path = new Stack<>();
+		if (!this.isReached(currentPosition, goal))
+			return path;
+		int row = this.indexOf(currentPosition) * this.fields;
+		int start = this.indexOf(currentPosition);
+		int u = this.indexOf(goal);
+		do {
+			path.add(new Point(u % this.width, u / this.width));
+			u = this.nearest[row + u];
+		} while (u != start);
+		return path;
+	}
+
+	/**
+	 * Method to check whether the table was built for a map of the same size
+	 * 
+	 * @param map the Map the game is played on now
+	 * @return true if the map is as wide and as high as the table
+	 */
+	public boolean fitsSizeOf(Map map) {
+		return this.width == map.getWidth() && this.height == map.getHeight();
+	}
+
+	/**
+	 * Method to get the memory the table takes, it grows with the square of the
+	 * number of fields: 32KB for 64 fields, 8MB for 1024 fields
+	 * 
+	 * @return size of the arrays in bytes
+	 */
+	public long getMemoryFootprint() {
+		return ((long) this.distances.length + this.nearest.length) * Integer.BYTES;
+	}
+}
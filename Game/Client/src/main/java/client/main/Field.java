@@ -52,6 +52,27 @@ public class Field {
 		return this.player;
 	}
 
+	/**
+	 * @param fortress the fortress now known on that field
+	 */
+	public void setFortress(Fortress fortress) {
+		this.fortress = fortress;
+	}
+
+	/**
+	 * @param treasure the treasure now known on that field
+	 */
+	public void setTreasure(Treasure treasure) {
+		this.treasure = treasure;
+	}
+
+	/**
+	 * @param player the players who are now on that field
+	 */
+	public void setPlayer(PlayerOnPosition player) {
+		this.player = player;
+	}
+
 	/**
 	 * @param b set if a given field has been visited or not ( used in flood-fill
 	 *          and movement)
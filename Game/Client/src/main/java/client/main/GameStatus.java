@@ -2,6 +2,7 @@ package client.main;
 
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
+import java.util.List;
 
 public class GameStatus {
 	private Map map;
@@ -106,6 +107,24 @@ public class GameStatus {
 
 	}
 
+	/**
+	 * Method that is called after fields of the map have been changed in place.
+	 * The position of the player and whether the treasure and the enemy fortress
+	 * are present are taken from the indexes of the map, the PlayerPosition is
+	 * only fired if the player moved. The PropertyChangeSupport fires a
+	 * FieldsUpdate with the changed points, nothing is fired if no field changed.
+	 * 
+	 * @param changed the Points of the fields that have been changed
+	 */
+	public void updateFields(List<Point> changed) {
+		if (changed.isEmpty())
+			return;
+		this.updatePosition();
+		this.setTreasurePresent(this.map.isTreasurePresent());
+		this.setEnemyFortressPresent(this.map.isEnemyFortressPresent());
+		propertyChangeSupport.firePropertyChange("FieldsUpdate", null, changed);
+	}
+
 	/**
 	 * @return the Point on which the Treasure is
 	 */
@@ -1,9 +1,32 @@
 package client.main;
 
-import java.util.HashMap;
-import java.util.Map.Entry;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
+/*
+ * The HalfMap is built so that it follows the rules instead of being drawn at
+ * random until it does. First the number of mountains and water fields is
+ * chosen within the rules, the rest is grass. The water is placed on shuffled
+ * fields, a field is skipped if it would put too much water on the border or
+ * cut the land into islands, so the map stays connected the whole time. The
+ * mountains and the fortress then go on grass, they can't break anything. The
+ * finished map is checked once more, a pass that fails is repeated, which only
+ * happens if no field was left for the water.
+ */
 public class GenerateMap {
+	private static final int WIDTH = 8;
+	private static final int HEIGHT = 4;
+	private static final int MIN_MOUNTAINS = 3;
+	private static final int MIN_WATER = 4;
+	private static final int MIN_GRASS = 15;
+	// at most this many more than the minimum, grass keeps at least 19 fields
+	private static final int EXTRA_MOUNTAINS = 3;
+	private static final int EXTRA_WATER = 3;
+	private static final int MAX_WIDTH_BORDER_WATER = 3;
+	private static final int MAX_HEIGHT_BORDER_WATER = 1;
+
+	private final Random random;
+	private int attempts;
 	private Map map;
 
 	/**
@@ -11,6 +34,17 @@ public class GenerateMap {
 	 * generate() method is automatically called
 	 */
 	public GenerateMap() {
+		this(ThreadLocalRandom.current());
+	}
+
+	/**
+	 * Constructor for the GenerateMap class that draws the map from the given
+	 * random generator, the same seed gives the same map
+	 *
+	 * @param random random generator the map is drawn from
+	 */
+	public GenerateMap(Random random) {
+		this.random = random;
 		this.map = generate();
 	}
 
@@ -19,126 +53,189 @@ public class GenerateMap {
 	}
 
 	/**
-	 * Method that generates a random HashMap<Point,Field> that is used to create a
-	 * Map object, where the game will be played, Map is generated at 4x8 aspect
-	 * with random terrains and a 30% chance to place a fortress on a given tile,
-	 * after generating the map it is checked for legality.
-	 * 
+	 * @return how many passes were needed until the map followed all rules
+	 */
+	public int getAttempts() {
+		return this.attempts;
+	}
+
+	/**
+	 * Method that generates the fields of an 8x4 Map object, where the game will
+	 * be played, the counts of the terrains are drawn within the rules and the
+	 * terrain is placed as described above, with the fortress on a random grass
+	 * field.
+	 *
 	 * @return HalfMap that needs to be sent to the network.
 	 */
 	private Map generate() {
-		HashMap<Point, Field> map = new HashMap<>();
+		Terrain[] terrains = new Terrain[WIDTH * HEIGHT];
+		int fortress;
 		do {
-			map.clear();
-			Boolean fortressPlaced = false;
-			for (int y = 0; y < Global.maxY; y++) {
-				for (int x = 0; x < Global.maxX; x++) {
-					Point p = new Point(x, y);
-					Fortress fort = Fortress.None;
-					Terrain t = Terrain.getRandomTerrain();
-					if (!fortressPlaced && t == Terrain.Grass) {
-						if (Math.random() < 0.3) {
-							fort = Fortress.MyFortress;
-							fortressPlaced = true;
-						}
-					}
-					Field f = new Field(t, fort, Treasure.None, PlayerOnPosition.None);
-					map.put(p, f);
-				}
+			this.attempts++;
+			fortress = this.place(terrains);
+		} while (fortress < 0 || !check(terrains, fortress));
+		Field[] fields = new Field[WIDTH * HEIGHT];
+		for (int index = 0; index < fields.length; index++)
+			fields[index] = new Field(terrains[index], index == fortress ? Fortress.MyFortress : Fortress.None,
+					Treasure.None, PlayerOnPosition.None);
+		return new Map(WIDTH, HEIGHT, fields);
+	}
+
+	/**
+	 * Method that fills the terrains in one pass
+	 *
+	 * @param terrains terrain of every field, the field x,y at y * WIDTH + x
+	 * @return index of the field with the fortress, -1 if the water couldn't be
+	 *         placed
+	 */
+	private int place(Terrain[] terrains) {
+		int water = MIN_WATER + this.random.nextInt(EXTRA_WATER + 1);
+		int mountains = MIN_MOUNTAINS + this.random.nextInt(EXTRA_MOUNTAINS + 1);
+		for (int index = 0; index < terrains.length; index++)
+			terrains[index] = Terrain.Grass;
+		int[] order = this.shuffled(terrains.length);
+		int widthBorderWater = 0;
+		int heightBorderWater = 0;
+		for (int i = 0; i < order.length && water > 0; i++) {
+			int index = order[i];
+			boolean onWidthBorder = isOnWidthBorder(index);
+			boolean onHeightBorder = isOnHeightBorder(index);
+			if (onWidthBorder && widthBorderWater == MAX_WIDTH_BORDER_WATER
+					|| onHeightBorder && heightBorderWater == MAX_HEIGHT_BORDER_WATER)
+				continue;
+			terrains[index] = Terrain.Water;
+			if (!isConnected(terrains)) {
+				terrains[index] = Terrain.Grass;
+				continue;
 			}
-		} while (!check(map));
-		Map m = new Map(map);
-		return m;
+			water--;
+			if (onWidthBorder)
+				widthBorderWater++;
+			if (onHeightBorder)
+				heightBorderWater++;
+		}
+		if (water > 0)
+			return -1;
+		order = this.shuffled(terrains.length);
+		int fortress = -1;
+		for (int i = 0; i < order.length; i++) {
+			int index = order[i];
+			if (terrains[index] != Terrain.Grass)
+				continue;
+			if (mountains > 0) {
+				terrains[index] = Terrain.Mountain;
+				mountains--;
+			} else if (fortress < 0) {
+				fortress = index;
+			}
+		}
+		return fortress;
+	}
+
+	private int[] shuffled(int length) {
+		int[] order = new int[length];
+		for (int i = 0; i < length; i++)
+			order[i] = i;
+		for (int i = length - 1; i > 0; i--) {
+			int j = this.random.nextInt(i + 1);
+			int swap = order[i];
+			order[i] = order[j];
+			order[j] = swap;
+		}
+		return order;
+	}
+
+	private static boolean isOnWidthBorder(int index) {
+		return index / WIDTH == 0 || index / WIDTH == HEIGHT - 1;
+	}
+
+	private static boolean isOnHeightBorder(int index) {
+		return index % WIDTH == 0 || index % WIDTH == WIDTH - 1;
 	}
 
 	/**
 	 * Implementation of the floodfill algorithm, to check if every field of the map
-	 * is reachable, when the algorithm reaches a given field its visited value its
-	 * set to true. Every call of the algorithm calls finishes with a recursive call
-	 * to its neighbor fields.
-	 * 
-	 * @param map the map thats needs to be traversed
-	 * @param x   current position on the x-axis
-	 * @param y   current position on the y-axis
+	 * that isn't water is reachable from the first of them. The fields still to
+	 * visit are kept in an int array used as queue instead of recursive calls.
+	 *
+	 * @param terrains terrain of every field, the field x,y at y * WIDTH + x
+	 * @return true if there are no islands
 	 */
-	private void traverse(Field[][] map, int x, int y) {
-		if (x < 0 || x > 7 || y < 0 || y > 3)
-			return;
-		if (map[x][y].getTerrain() == Terrain.Water || map[x][y].getVisited() == true)
-			return;
-		map[x][y].setVisited(true);
-
-		traverse(map, x, y + 1);
-		traverse(map, x, y - 1);
-		traverse(map, x - 1, y);
-		traverse(map, x + 1, y);
+	static boolean isConnected(Terrain[] terrains) {
+		boolean[] reached = new boolean[terrains.length];
+		int[] queue = new int[terrains.length];
+		int land = 0;
+		int head = 0;
+		int tail = 0;
+		for (int index = 0; index < terrains.length; index++) {
+			if (terrains[index] == Terrain.Water)
+				continue;
+			if (land++ == 0) {
+				reached[index] = true;
+				queue[tail++] = index;
+			}
+		}
+		while (head < tail) {
+			int index = queue[head++];
+			int x = index % WIDTH;
+			if (x > 0)
+				tail = visit(terrains, reached, queue, index - 1, tail);
+			if (x < WIDTH - 1)
+				tail = visit(terrains, reached, queue, index + 1, tail);
+			if (index >= WIDTH)
+				tail = visit(terrains, reached, queue, index - WIDTH, tail);
+			if (index + WIDTH < terrains.length)
+				tail = visit(terrains, reached, queue, index + WIDTH, tail);
+		}
+		return tail == land;
+	}
 
+	private static int visit(Terrain[] terrains, boolean[] reached, int[] queue, int index, int tail) {
+		if (reached[index] || terrains[index] == Terrain.Water)
+			return tail;
+		reached[index] = true;
+		queue[tail] = index;
+		return tail + 1;
 	}
 
 	/**
 	 * Function that checks the validity of a map. Map needs to fulfill a couple of
 	 * constraints: 1) Mountain fields need to be at least 3 2) Water fields need to
 	 * be at least 4 3) Grass fields need to be at least 15 4) A fortress needs to
-	 * be present 5) Every field must be reachable (no islands present) checked in
-	 * the traverse function 6) Water fields on the width of the borders must be at
+	 * be present on grass 5) Every field must be reachable (no islands present)
+	 * checked in isConnected 6) Water fields on the width of the borders must be at
 	 * most 3 7) Water fields on the height of the borders must be at most 1
-	 * 
-	 * @param m the map thats needs to be checked for its validity
+	 *
+	 * @param terrains terrain of every field, the field x,y at y * WIDTH + x
+	 * @param fortress index of the field with the fortress
 	 * @return validity of map: true = valid, false = invalid
 	 */
-	private Boolean check(HashMap<Point, Field> m) {
+	static boolean check(Terrain[] terrains, int fortress) {
 		int mountainCount = 0;
 		int waterCount = 0;
 		int grassCount = 0;
 		int widthBorderWater = 0;
 		int heightBorderWater = 0;
-		Boolean fortressPresent = false;
-		for (Entry<Point, Field> entry : m.entrySet()) {
-			switch (entry.getValue().getTerrain()) {
+		for (int index = 0; index < terrains.length; index++) {
+			switch (terrains[index]) {
 			case Mountain:
 				mountainCount++;
 				break;
 			case Water:
 				waterCount++;
+				if (isOnWidthBorder(index))
+					widthBorderWater++;
+				if (isOnHeightBorder(index))
+					heightBorderWater++;
 				break;
 			case Grass:
 				grassCount++;
 				break;
 			}
-			switch (entry.getValue().getFortress()) {
-			case MyFortress:
-				fortressPresent = true;
-				break;
-			default:
-				break;
-			}
-		}
-
-		Field[][] temp = new Field[8][4];
-		for (Entry<Point, Field> entry : m.entrySet()) {
-			temp[entry.getKey().getX()][entry.getKey().getY()] = entry.getValue();
 		}
-		traverse(temp, 0, 0);
-
-		for (int y = 0; y < 4; y++) {
-			for (int x = 0; x < 8; x++) {
-				if (y == 0 || y == 3 || x == 0 || x == 7) {
-					if (temp[x][y].getTerrain() == Terrain.Water) {
-						if (y == 0 || y == 3)
-							widthBorderWater++;
-						if (x == 0 || x == 7)
-							heightBorderWater++;
-					}
-				}
-				if (temp[x][y].getTerrain() != Terrain.Water && temp[x][y].getVisited() == false)
-					return false;
-			}
-		}
-		for (Entry<Point, Field> e : m.entrySet()) {
-			e.getValue().setVisited(false);
-		}
-		return mountainCount >= 3 && waterCount >= 4 && grassCount >= 15 && fortressPresent && widthBorderWater <= 3
-				&& heightBorderWater <= 1;
-
+		return mountainCount >= MIN_MOUNTAINS && waterCount >= MIN_WATER && grassCount >= MIN_GRASS
+				&& fortress >= 0 && terrains[fortress] == Terrain.Grass
+				&& widthBorderWater <= MAX_WIDTH_BORDER_WATER && heightBorderWater <= MAX_HEIGHT_BORDER_WATER
+				&& isConnected(terrains);
 	}
 }
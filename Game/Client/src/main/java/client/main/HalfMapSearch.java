@@ -0,0 +1,182 @@
+package client.main;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/*
+ * Instead of sending the first valid HalfMap, many are generated and the best
+ * one is sent. The search is split in halves with fork/join down to one task
+ * per worker, every task generates and scores maps until the time budget is
+ * used up and keeps its best one, the halves are joined by keeping the better
+ * map. No state is shared between the tasks, every one has its own Dijkstra.
+ *
+ * The server lets a player lose if more than 5 seconds pass between two of his
+ * requests, the search runs after the registration and before the next request,
+ * so the budget is capped at 2 seconds, which leaves the rest for the round
+ * trips of these requests.
+ */
+public class HalfMapSearch {
+	// leaves time for the registration before and the request after the search
+	private static final long MAX_BUDGET_MILLIS = 2000;
+	// can be overridden on start, e.g. -Dclient.halfmap.searchMillis=1000
+	private static final long BUDGET_MILLIS = Math.min(Long.getLong("client.halfmap.searchMillis", 2000),
+			MAX_BUDGET_MILLIS);
+	// a mountain reveals the fields around it, further away doesn't count more
+	private static final int MAX_HIDDEN = 3;
+	private static final int HIDDEN_WEIGHT = 4;
+
+	private final long budgetMillis;
+	private final ForkJoinPool pool;
+	private int evaluated;
+	private long elapsedMillis;
+	private int bestScore;
+
+	/**
+	 * Constructor for the HalfMapSearch class, searches on all cores within the
+	 * configured budget
+	 */
+	public HalfMapSearch() {
+		this(BUDGET_MILLIS, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Constructor for the HalfMapSearch class
+	 *
+	 * @param budgetMillis how long the search may take, at most 2 seconds
+	 * @param pool         pool the search runs in, one task per thread of it
+	 */
+	public HalfMapSearch(long budgetMillis, ForkJoinPool pool) {
+		this.budgetMillis = Math.min(budgetMillis, MAX_BUDGET_MILLIS);
+		this.pool = pool;
+	}
+
+	/**
+	 * Method that generates valid HalfMaps on all threads of the pool until the
+	 * budget is used up and returns the one with the highest score, at least one
+	 * map is generated by every task even if the budget is 0
+	 *
+	 * @return the best HalfMap found
+	 */
+	public Map search() {
+		long start = System.nanoTime();
+		long deadline = start + this.budgetMillis * 1_000_000;
+		Candidate best = this.pool.invoke(new Search(this.pool.getParallelism(), deadline));
+		this.elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+		this.evaluated = best.evaluated;
+		this.bestScore = best.score;
+		return best.map;
+	}
+
+	/**
+	 * @return number of HalfMaps generated and scored by the last search
+	 */
+	public int getEvaluated() {
+		return this.evaluated;
+	}
+
+	/**
+	 * @return how long the last search took in milliseconds
+	 */
+	public long getElapsedMillis() {
+		return this.elapsedMillis;
+	}
+
+	/**
+	 * @return HalfMaps scored per second in the last search
+	 */
+	public double getCandidatesPerSecond() {
+		return this.evaluated * 1000.0 / Math.max(1, this.elapsedMillis);
+	}
+
+	/**
+	 * @return score of the map returned by the last search
+	 */
+	public int getBestScore() {
+		return this.bestScore;
+	}
+
+	/**
+	 * Method that scores a HalfMap, the higher the better. The opponent comes from
+	 * the border of the HalfMap, so the average steps from the fields on the
+	 * border that aren't water to the fortress are the base of the score. A
+	 * fortress that is seen from a mountain next to it is found early, so every
+	 * field between the fortress and the closest mountain adds HIDDEN_WEIGHT.
+	 *
+	 * @param map      HalfMap with a fortress
+	 * @param dijkstra Dijkstra that is run from the fortress
+	 * @return score of the map
+	 */
+	public static int score(Map map, Dijkstra dijkstra) {
+		Point fortress = map.getMyFortressPosition();
+		int hidden = MAX_HIDDEN;
+		for (Point mountain : map.getPointsOf(Terrain.Mountain)) {
+			int distance = Math.max(Math.abs(mountain.getX() - fortress.getX()),
+					Math.abs(mountain.getY() - fortress.getY()));
+			hidden = Math.min(hidden, distance - 1);
+		}
+		dijkstra.clear();
+		dijkstra.runDijkstra(map, fortress);
+		int steps = 0;
+		int borderFields = 0;
+		for (int y = 0; y < map.getHeight(); y++) {
+			for (int x = 0; x < map.getWidth(); x++) {
+				boolean onBorder = x == 0 || y == 0 || x == map.getWidth() - 1 || y == map.getHeight() - 1;
+				Field field = map.getField(x, y);
+				if (!onBorder || field == null || field.getTerrain() == Terrain.Water)
+					continue;
+				steps += dijkstra.getDistanceTo(new Point(x, y));
+				borderFields++;
+			}
+		}
+		return steps / Math.max(1, borderFields) + hidden * HIDDEN_WEIGHT;
+	}
+
+	private static final class Candidate {
+		private final Map map;
+		private final int score;
+		private final int evaluated;
+
+		private Candidate(Map map, int score, int evaluated) {
+			this.map = map;
+			this.score = score;
+			this.evaluated = evaluated;
+		}
+	}
+
+	private static final class Search extends RecursiveTask<Candidate> {
+		private static final long serialVersionUID = 1L;
+		private final int workers;
+		private final long deadline;
+
+		private Search(int workers, long deadline) {
+			this.workers = workers;
+			this.deadline = deadline;
+		}
+
+		@Override
+		protected Candidate compute() {
+			if (this.workers > 1) {
+				Search left = new Search(this.workers / 2, this.deadline);
+				left.fork();
+				Candidate right = new Search(this.workers - this.workers / 2, this.deadline).compute();
+				Candidate other = left.join();
+				Candidate best = other.score >= right.score ? other : right;
+				return new Candidate(best.map, best.score, other.evaluated + right.evaluated);
+			}
+			Dijkstra dijkstra = new Dijkstra();
+			Map best = null;
+			int bestScore = Integer.MIN_VALUE;
+			int evaluated = 0;
+			do {
+				Map map = new GenerateMap().getMap();
+				int score = score(map, dijkstra);
+				evaluated++;
+				if (score > bestScore) {
+					best = map;
+					bestScore = score;
+				}
+			} while (System.nanoTime() < this.deadline);
+			return new Candidate(best, bestScore, evaluated);
+		}
+	}
+}
@@ -1,124 +1,389 @@
 package client.main;
 
-import java.util.HashMap;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Set;
 
+/*
+ * The fields are kept in an array, the field x,y has the index y * width + x,
+ * and the map carries its own width and height, so a lookup doesn't depend on
+ * the size in Global, which changes when the full map arrives. Points where
+ * there is no field hold null.
+ *
+ * Besides the fields the map remembers where the players, the treasure and the
+ * fortresses are and which points have which terrain, so none of these
+ * questions needs to go over all fields. The indexes are built when the fields
+ * are set and kept up to date by updateField, fields must only be changed
+ * through it.
+ */
 public class Map {
-	private HashMap<Point, Field> map;
+	private static final Point ORIGIN = new Point(0, 0);
+
+	private int width;
+	private int height;
+	private Field[] fields;
+	private int size;
+	private Point currentPosition;
+	private Point enemyPosition;
+	private Point treasurePosition;
+	private Point myFortressPosition;
+	private Point enemyFortressPosition;
+	private EnumMap<Terrain, List<Point>> terrains;
+
+	/**
+	 * Constructor for Map class consisting of the fields in a grid
+	 *
+	 * @param width  number of fields in a row
+	 * @param height number of rows
+	 * @param fields Field array with the field x,y at index y * width + x, null
+	 *               where there is no field
+	 */
+	public Map(int width, int height, Field[] fields) {
+		this.setFields(width, height, fields);
+	}
 
 	/**
-	 * Constructor for Map class consisting of a HashMap<Point, Field>
-	 * 
+	 * Constructor for Map class consisting of a HashMap<Point, Field>, the fields
+	 * are put into a grid big enough for the highest coordinates
+	 *
 	 * @param map HashMap<Point,Field> play the role of the map itself
 	 */
-	public Map(HashMap<Point, Field> map) {
-		this.map = map;
+	public Map(java.util.Map<Point, Field> map) {
+		int width = 0;
+		int height = 0;
+		for (Point p : map.keySet()) {
+			width = Math.max(width, p.getX() + 1);
+			height = Math.max(height, p.getY() + 1);
+		}
+		Field[] fields = new Field[width * height];
+		for (Entry<Point, Field> entry : map.entrySet())
+			fields[entry.getKey().getY() * width + entry.getKey().getX()] = entry.getValue();
+		this.setFields(width, height, fields);
+	}
+
+	/**
+	 * Sets the fields of the map and builds the indexes from them, the points of
+	 * every terrain are kept row by row
+	 *
+	 * @param width  number of fields in a row
+	 * @param height number of rows
+	 * @param fields Field array with the field x,y at index y * width + x
+	 */
+	private void setFields(int width, int height, Field[] fields) {
+		this.width = width;
+		this.height = height;
+		this.fields = fields;
+		this.size = 0;
+		this.currentPosition = null;
+		this.enemyPosition = null;
+		this.treasurePosition = null;
+		this.myFortressPosition = null;
+		this.enemyFortressPosition = null;
+		this.terrains = new EnumMap<>(Terrain.class);
+		for (Terrain terrain : Terrain.values())
+			this.terrains.put(terrain, new ArrayList<>());
+		for (int index = 0; index < width * height; index++) {
+			Field field = fields[index];
+			if (field == null)
+				continue;
+			Point p = new Point(index % width, index / width);
+			this.size++;
+			this.terrains.get(field.getTerrain()).add(p);
+			// the first position of the player found is the one a scan returned
+			Point firstPosition = this.currentPosition;
+			this.index(p, field);
+			if (firstPosition != null)
+				this.currentPosition = firstPosition;
+		}
+	}
+
+	private static boolean isMyPosition(Field field) {
+		return field.getPlayer() == PlayerOnPosition.Player1 || field.getPlayer() == PlayerOnPosition.Both;
+	}
+
+	private static boolean isEnemyPosition(Field field) {
+		return field.getPlayer() == PlayerOnPosition.Player2 || field.getPlayer() == PlayerOnPosition.Both;
+	}
+
+	/**
+	 * Updates the indexes with what is on a field now
+	 *
+	 * @param p     Point of the field
+	 * @param field the Field at the point
+	 */
+	private void index(Point p, Field field) {
+		this.currentPosition = indexed(this.currentPosition, p, isMyPosition(field));
+		this.enemyPosition = indexed(this.enemyPosition, p, isEnemyPosition(field));
+		this.treasurePosition = indexed(this.treasurePosition, p, field.getTreasure() == Treasure.MyTreasure);
+		this.myFortressPosition = indexed(this.myFortressPosition, p, field.getFortress() == Fortress.MyFortress);
+		this.enemyFortressPosition = indexed(this.enemyFortressPosition, p,
+				field.getFortress() == Fortress.EnemyFortress);
+	}
+
+	private static Point indexed(Point indexed, Point p, boolean present) {
+		if (present)
+			return p;
+		return p.equals(indexed) ? null : indexed;
+	}
+
+	/**
+	 * @return number of fields in a row
+	 */
+	public int getWidth() {
+		return this.width;
+	}
+
+	/**
+	 * @return number of rows
+	 */
+	public int getHeight() {
+		return this.height;
+	}
+
+	/**
+	 * Method that returns the field at the given coordinates
+	 *
+	 * @param x x coordinate of the field
+	 * @param y y coordinate of the field
+	 * @return the Field, null if the coordinates are outside of the map or there
+	 *         is no field
+	 */
+	public Field getField(int x, int y) {
+		if (x < 0 || x >= this.width || y < 0 || y >= this.height)
+			return null;
+		return this.fields[y * this.width + x];
+	}
+
+	/**
+	 * @param p Point of the field
+	 * @return the Field at the point, null if there is none
+	 */
+	public Field getField(Point p) {
+		return this.getField(p.getX(), p.getY());
+	}
+
+	/**
+	 * Method that checks if there is a field at a point, the bounds are the width
+	 * and height of this map
+	 *
+	 * @param p Point that is checked
+	 * @return true if the map has a field at the point
+	 */
+	public boolean contains(Point p) {
+		return this.getField(p) != null;
 	}
 
 	/**
-	 * @return HashMap<Point,Field> playing the role of the map
+	 * Method that returns the neighbors of a point that are on the map, in the
+	 * order left, right, up and down
+	 *
+	 * @param p Point whose neighbors are returned
+	 * @return List with the points next to p that have a field
 	 */
-	public HashMap<Point, Field> getMap() {
-		return this.map;
+	public List<Point> getNeighbors(Point p) {
+		List<Point> neighbors = new ArrayList<>(4);
+		Point[] candidates = { new Point(p.getX() - 1, p.getY()), new Point(p.getX() + 1, p.getY()),
+				new Point(p.getX(), p.getY() - 1), new Point(p.getX(), p.getY() + 1) };
+		for (Point candidate : candidates) {
+			if (this.contains(candidate))
+				neighbors.add(candidate);
+		}
+		return neighbors;
+	}
+
+	/**
+	 * Method that returns the fields as a java.util.Map, the map can't be changed
+	 * and reads the grid, so looking a field up is still an array index and the
+	 * fields are iterated row by row
+	 *
+	 * @return the fields of the map by their points
+	 */
+	public java.util.Map<Point, Field> getMap() {
+		return new FieldsView();
 	}
 
 	/**
 	 * Method that updates the current Map object, in order the position of players,
-	 * treasures and fortresses to be intact with the map on server, sets the
-	 * HashMap attribute of the object to be equal to the HashMap attribute in the
-	 * given as a parameter Map.
-	 * 
+	 * treasures and fortresses to be intact with the map on server, takes over the
+	 * fields and the size of the given Map.
+	 *
 	 * @param map Map gotten from the server that has all the information up to
 	 *            date.
 	 */
 	public void updateMap(Map map) {
-		this.map = map.getMap();
+		this.setFields(map.width, map.height, map.fields);
 	}
 
 	/**
-	 * Method that finds where the player currently is on the map, check the field
-	 * object stored in every entry in the hashmap attribute of the map if the
-	 * PlayerOnPosition attribute is equal to PLAYER1 or BOTH
-	 * 
+	 * Method that changes what is on a field of the map and keeps the indexes up to
+	 * date, the terrain of a field never changes
+	 *
+	 * @param p        Point of the field
+	 * @param fortress the fortress now known on the field
+	 * @param treasure the treasure now known on the field
+	 * @param player   the players now on the field
+	 * @return true if the field changed, false if it was the same already or
+	 *         there is no field at the point
+	 */
+	public boolean updateField(Point p, Fortress fortress, Treasure treasure, PlayerOnPosition player) {
+		Field field = this.getField(p);
+		if (field == null || field.getFortress() == fortress && field.getTreasure() == treasure
+				&& field.getPlayer() == player)
+			return false;
+		field.setFortress(fortress);
+		field.setTreasure(treasure);
+		field.setPlayer(player);
+		this.index(p, field);
+		return true;
+	}
+
+	/**
+	 * Method that returns the points of all fields with a terrain, row by row
+	 *
+	 * @param terrain the Terrain of the fields
+	 * @return unmodifiable List of the points
+	 */
+	public List<Point> getPointsOf(Terrain terrain) {
+		return Collections.unmodifiableList(this.terrains.get(terrain));
+	}
+
+	/**
+	 * Method that finds where the player currently is on the map, the field where
+	 * the PlayerOnPosition attribute is equal to PLAYER1 or BOTH
+	 *
 	 * @return the current position of the player on the map
 	 */
 	public Point getCurrentPosition() {
-		Point p = null;
-		for (Entry<Point, Field> entry : this.map.entrySet()) {
-			if (entry.getValue().getPlayer() == PlayerOnPosition.Player1
-					|| entry.getValue().getPlayer() == PlayerOnPosition.Both) {
-				p = entry.getKey();
-				break;
-			}
-		}
-		return p;
+		return this.currentPosition;
+	}
+
+	/**
+	 * Method that finds where the enemy currently is on the map, the field where
+	 * the PlayerOnPosition attribute is equal to PLAYER2 or BOTH
+	 *
+	 * @return the current position of the enemy, null if he isn't on the map
+	 */
+	public Point getEnemyPosition() {
+		return this.enemyPosition;
 	}
 
 	/**
 	 * Method that checks if the treasure that the player seeks is present on the
-	 * map, check every field object stored in every entry of the hashmap, if the
-	 * Treasure object is equal to MyTreasure
-	 * 
+	 * map, a field whose Treasure object is equal to MyTreasure
+	 *
 	 * @return whether or not the seeked treasure is present or not
 	 */
 	public Boolean isTreasurePresent() {
-		for (Entry<Point, Field> entry : this.map.entrySet()) {
-			if (entry.getValue().getTreasure() == Treasure.MyTreasure)
-				return true;
-		}
-		return false;
+		return this.treasurePosition != null;
 	}
 
 	/**
 	 * Method that checks if the fortress of the enemy player is present on the map,
-	 * check every field object stored in every entry of the hashmap, if the
-	 * fortress object is equal to EnemyFortress
-	 * 
+	 * a field whose fortress object is equal to EnemyFortress
+	 *
 	 * @return whether or not the enemy fortress is present or not
 	 */
 	public Boolean isEnemyFortressPresent() {
-		for (Entry<Point, Field> entry : this.map.entrySet()) {
-			if (entry.getValue().getFortress() == Fortress.EnemyFortress)
-				return true;
-		}
-		return false;
+		return this.enemyFortressPosition != null;
 	}
 
 	/**
-	 * Method that seeks and returns the Point where the treasure is located, checks
-	 * every field object stored in every entry of the hashmap, and if the Treasure
-	 * attribute is equal to MyTreasure returns the point associated to it.
-	 * 
-	 * @return Point object where Treasure is located
-
+	 * Method that returns the Point where the treasure is located, the field whose
+	 * Treasure attribute is equal to MyTreasure.
+	 *
+	 * @return Point object where Treasure is located, (0,0) if it isn't present
 	 */
 	public Point getTreasurePosition() {
-		Point p = new Point(0,0);
-		for (Entry<Point, Field> entry : this.map.entrySet()) {
-			if (entry.getValue().getTreasure().equals(Treasure.MyTreasure)) {
-				p.setX(entry.getKey().getX());
-				p.setY(entry.getKey().getY());
-			}
-		}
-		return p;
+		return orOrigin(this.treasurePosition);
+	}
+
+	/**
+	 * Method that returns the Point where the own fortress is located
+	 *
+	 * @return Point object where MyFortress is located, (0,0) if it isn't present
+	 */
+	public Point getMyFortressPosition() {
+		return orOrigin(this.myFortressPosition);
 	}
 
 	/**
-	 * Method that seeks and returns the Point where the enemy fortress is located,
-	 * checks every field object stored in every entry of the hashmap, and if the
-	 * fortress attribute is equal to EnemyFortress and returns the point associated
-	 * to it. 
-	 * 
-	 * @return Point object where EnemyFortress is located
+	 * Method that returns the Point where the enemy fortress is located, the field
+	 * whose fortress attribute is equal to EnemyFortress.
+	 *
+	 * @return Point object where EnemyFortress is located, (0,0) if it isn't
+	 *         present
 	 */
 	public Point getEnemyFortressPosition() {
-		Point p = new Point(0, 0);
-		for (Entry<Point, Field> entry : this.map.entrySet()) {
-			if (entry.getValue().getFortress() == Fortress.EnemyFortress) {
-				p.setX(entry.getKey().getX());
-				p.setY(entry.getKey().getY());
-			}
+		return orOrigin(this.enemyFortressPosition);
+	}
+
+	private static Point orOrigin(Point p) {
+		return p == null ? ORIGIN : p;
+	}
+
+	/*
+	 * Read only java.util.Map over the grid, get and containsKey are array
+	 * lookups, the entries are created while iterating.
+	 */
+	private final class FieldsView extends AbstractMap<Point, Field> {
+		@Override
+		public Field get(Object key) {
+			return key instanceof Point ? Map.this.getField((Point) key) : null;
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return this.get(key) != null;
+		}
+
+		@Override
+		public int size() {
+			return Map.this.size;
+		}
+
+		@Override
+		public Set<Entry<Point, Field>> entrySet() {
+			return new AbstractSet<Entry<Point, Field>>() {
+				@Override
+				public int size() {
+					return Map.this.size;
+				}
+
+				@Override
+				public Iterator<Entry<Point, Field>> iterator() {
+					return new Iterator<Entry<Point, Field>>() {
+						private int next = this.skip(0);
+
+						private int skip(int index) {
+							while (index < Map.this.width * Map.this.height && Map.this.fields[index] == null)
+								index++;
+							return index;
+						}
+
+						@Override
+						public boolean hasNext() {
+							return this.next < Map.this.width * Map.this.height;
+						}
+
+						@Override
+						public Entry<Point, Field> next() {
+							if (!this.hasNext())
+								throw new NoSuchElementException();
+							int index = this.next;
+							this.next = this.skip(index + 1);
+							return new SimpleImmutableEntry<>(new Point(index % Map.this.width, index / Map.this.width),
+									Map.this.fields[index]);
+						}
+					};
+				}
+			};
 		}
-		return p;
 	}
 }
@@ -1,7 +1,8 @@
 package client.main;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -24,9 +25,7 @@ public class MapConverter {
 	 * @return the HalfMap ready to be sent to Server
 	 */
 	public HalfMap convertToHalfMap(UniquePlayerIdentifier playerid,Map map) {
-		HashMap<Point, Field> myMap = map.getMap();
-		
-		Collection<HalfMapNode> nodes = myMap
+		Collection<HalfMapNode> nodes = map.getMap()
 				.entrySet()
 				.stream()
 				.map(e -> new HalfMapNode(e.getKey().getX(), e.getKey().getY(),
@@ -40,43 +39,82 @@ public class MapConverter {
 	
 	/**
 	 * Method that converts a Set of FullMapNodes received from the server into a Map object that the game is played on.
-	 * Going through every entry in the set and converting their coordinates into Point Objects and Field Objects that are later put in a HashMap,
-	 * that is used to instantiate a Map object
+	 * Going through every entry in the set and converting it into a Field Object that is put into a grid at the coordinates of the node,
+	 * the grid is as big as the highest coordinates and is used to instantiate a Map object
 	 * @param nodes Set of FullMapNodes received from the Server after a GET request
 	 * @return Map object that is being used to play the game.
 	 */
 	public Map convertToMap(Set<FullMapNode> nodes) {
-		HashMap<Point,Field> temp = new HashMap<>();
+		int width = 0;
+		int height = 0;
 		for (FullMapNode node : nodes) {
-			Point point = new Point(node.getX(),node.getY());
-			Terrain terrain = Terrain.Grass;
-			Treasure treasure = Treasure.None;
-			switch(node.getTerrain()) {
-			case Mountain : terrain = Terrain.Mountain; break;
-			case Water : terrain = Terrain.Water; break;
-			default : break;
-			}
-			Fortress fort = Fortress.None;
-			switch(node.getFortState()) {
-			case MyFortPresent: fort = Fortress.MyFortress; break;
-			case EnemyFortPresent: fort = Fortress.EnemyFortress; break;
-			default : fort = Fortress.None; break;
-			}
-			switch(node.getTreasureState()) {
-			case MyTreasureIsPresent: treasure = Treasure.MyTreasure; break;
-			default: break;
-			}
-			PlayerOnPosition player = PlayerOnPosition.None;
-			switch(node.getPlayerPositionState()) {
-			case MyPosition : player = PlayerOnPosition.Player1; break;
-			case EnemyPlayerPosition : player = PlayerOnPosition.Player2; break;
-			case BothPlayerPosition : player = PlayerOnPosition.Both; break;
-			default: break;
-			}
-			Field field = new Field(terrain,fort,treasure,player);
-			temp.put(point, field);
+			width = Math.max(width, node.getX() + 1);
+			height = Math.max(height, node.getY() + 1);
 		}
-		Map map = new Map(temp);
+		Field[] fields = new Field[width * height];
+		for (FullMapNode node : nodes)
+			fields[node.getY() * width + node.getX()] = new Field(toTerrain(node),toFortress(node),toTreasure(node),toPlayer(node));
+		Map map = new Map(width, height, fields);
 		return map;
 	}
+
+	/**
+	 * Method that brings a Map up to date with the FullMapNodes received from the server, without building a new one.
+	 * The terrain never changes, so only the fortress, the treasure and the players of every node are compared with the field
+	 * at the same point, the fields that differ are changed in place through the map, which keeps its indexes up to date,
+	 * and their points are returned.
+	 * If a node has no field in the map, e.g. when the size of the map changed, nothing is changed and null is returned,
+	 * then the map needs to be converted again.
+	 * @param map Map that is being used to play the game
+	 * @param nodes Set of FullMapNodes received from the Server after a GET request
+	 * @return the points of the changed fields, null if the map needs to be converted again
+	 */
+	public List<Point> updateMap(Map map, Set<FullMapNode> nodes) {
+		if (nodes.size() != map.getMap().size())
+			return null;
+		List<Point> changed = new ArrayList<>();
+		for (FullMapNode node : nodes) {
+			Field field = map.getField(node.getX(), node.getY());
+			if (field == null || field.getTerrain() != toTerrain(node))
+				return null;
+		}
+		for (FullMapNode node : nodes) {
+			Point point = new Point(node.getX(), node.getY());
+			if (map.updateField(point, toFortress(node), toTreasure(node), toPlayer(node)))
+				changed.add(point);
+		}
+		return changed;
+	}
+
+	private static Terrain toTerrain(FullMapNode node) {
+		switch(node.getTerrain()) {
+		case Mountain : return Terrain.Mountain;
+		case Water : return Terrain.Water;
+		default : return Terrain.Grass;
+		}
+	}
+
+	private static Fortress toFortress(FullMapNode node) {
+		switch(node.getFortState()) {
+		case MyFortPresent: return Fortress.MyFortress;
+		case EnemyFortPresent: return Fortress.EnemyFortress;
+		default : return Fortress.None;
+		}
+	}
+
+	private static Treasure toTreasure(FullMapNode node) {
+		switch(node.getTreasureState()) {
+		case MyTreasureIsPresent: return Treasure.MyTreasure;
+		default: return Treasure.None;
+		}
+	}
+
+	private static PlayerOnPosition toPlayer(FullMapNode node) {
+		switch(node.getPlayerPositionState()) {
+		case MyPosition : return PlayerOnPosition.Player1;
+		case EnemyPlayerPosition : return PlayerOnPosition.Player2;
+		case BothPlayerPosition : return PlayerOnPosition.Both;
+		default: return PlayerOnPosition.None;
+		}
+	}
 }
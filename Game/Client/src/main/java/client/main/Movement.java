@@ -1,7 +1,6 @@
 package client.main;
 
 import java.util.ArrayList;
-import java.util.Map.Entry;
 import java.util.Stack;
 
 public class Movement {
@@ -9,6 +8,7 @@ public class Movement {
 	private Point currentPosition;
 	private ArrayList<Point> visited = new ArrayList<>();
 	private Dijkstra dijkstra;
+	private DistanceTable distanceTable;
 
 	/**
 	 * Constructor for Movement classing taking Map object and Point object as
@@ -21,10 +21,42 @@ public class Movement {
 	public Movement(Map map, Point currentPosition) {
 		this.map = map;
 		this.currentPosition = this.map.getCurrentPosition();
-		map.getMap().get(currentPosition).setVisited(true);
+		map.getField(currentPosition).setVisited(true);
 		this.dijkstra = new Dijkstra();
 	}
 
+	/**
+	 * Constructor for Movement class that looks the shortest paths up in the
+	 * DistanceTable of the map instead of searching them every turn
+	 * 
+	 * @param map             the map on which the player will move
+	 * @param currentPosition current position of layer
+	 * @param distanceTable   the shortest paths between all fields of the map
+	 */
+	public Movement(Map map, Point currentPosition, DistanceTable distanceTable) {
+		this(map, currentPosition);
+		this.distanceTable = distanceTable;
+	}
+
+	/**
+	 * Method that gives the shortest paths from the current position, looked up in
+	 * the DistanceTable if there is one for the map, searched otherwise
+	 * 
+	 * @param goal         goal Point of a goal directed search, null for all paths
+	 * @param goalDirected whether A* is used instead of a full Dijkstra
+	 * @return the shortest paths from the current position
+	 */
+	private ShortestPaths shortestPaths(Point goal, boolean goalDirected) {
+		if (this.distanceTable != null && this.distanceTable.fitsSizeOf(this.map))
+			return this.distanceTable;
+		dijkstra.clear();
+		if (goalDirected && goal != null)
+			dijkstra.runAStar(this.map, this.currentPosition, goal);
+		else
+			dijkstra.runDijkstra(this.map, this.currentPosition);
+		return dijkstra;
+	}
+
 	/**
 	 * Method that sets the Map attribute and currentPosition of player on the map
 	 * 
@@ -39,8 +71,7 @@ public class Movement {
 	 * @param newPosition Point that needs to be set as currentPosition
 	 */
 	public void setCurrentPosition(Point newPosition) {
-		this.currentPosition.setX(newPosition.getX());
-		this.currentPosition.setY(newPosition.getY());
+		this.currentPosition = newPosition;
 	}
 
 	/**
@@ -55,38 +86,50 @@ public class Movement {
 	 * @return List of Directions to the goal Point
 	 */
 	public ArrayList<Direction> shortestPathTo(Point goal) {
-		dijkstra.clear();
-		dijkstra.runDijkstra(this.map, this.currentPosition);
-		Stack<Point> path = this.dijkstra.pathTo(this.currentPosition, goal);
+		return this.shortestPathTo(goal, false);
+	}
+
+	/**
+	 * A method that returns a List of directions that need to be sent to the server
+	 * in order to reach a Point goal, like shortestPathTo(goal), but the search can
+	 * be goal directed, then the Dijkstra class runs A* and only visits the fields
+	 * that could be on the shortest path to the goal. If there is a DistanceTable
+	 * the path is looked up in it instead
+	 * 
+	 * @param goal         goal Point that needs to be reached
+	 * @param goalDirected whether A* is used instead of a full Dijkstra
+	 * @return List of Directions to the goal Point
+	 */
+	public ArrayList<Direction> shortestPathTo(Point goal, boolean goalDirected) {
+		Stack<Point> path = this.shortestPaths(goal, goalDirected).pathTo(this.currentPosition, goal);
 		ArrayList<Direction> directions = new ArrayList<>();
-		Point tempCurrent = new Point(this.currentPosition.getX(), this.currentPosition.getY());
+		Point tempCurrent = this.currentPosition;
 		while (!path.isEmpty()) {
 			Point p = path.pop();
-			System.out.println(this.map.getMap().get(tempCurrent).getTerrain().getRequiredToLeave()
-					+ this.map.getMap().get(p).getTerrain().getRequiredToEnter());
+			System.out.println(this.map.getField(tempCurrent).getTerrain().getRequiredToLeave()
+					+ this.map.getField(p).getTerrain().getRequiredToEnter());
 			if (p.getX() == tempCurrent.getX() - 1) {
-				for (int i = 0; i < this.map.getMap().get(tempCurrent).getTerrain().getRequiredToLeave()
-						+ this.map.getMap().get(p).getTerrain().getRequiredToEnter(); i++)
+				for (int i = 0; i < this.map.getField(tempCurrent).getTerrain().getRequiredToLeave()
+						+ this.map.getField(p).getTerrain().getRequiredToEnter(); i++)
 					directions.add(Direction.Left);
 			}
 			if (p.getX() == tempCurrent.getX() + 1) {
-				for (int i = 0; i < this.map.getMap().get(tempCurrent).getTerrain().getRequiredToLeave()
-						+ this.map.getMap().get(p).getTerrain().getRequiredToEnter(); i++)
+				for (int i = 0; i < this.map.getField(tempCurrent).getTerrain().getRequiredToLeave()
+						+ this.map.getField(p).getTerrain().getRequiredToEnter(); i++)
 					directions.add(Direction.Right);
 			}
 			if (p.getY() == tempCurrent.getY() - 1) {
-				for (int i = 0; i < this.map.getMap().get(tempCurrent).getTerrain().getRequiredToLeave()
-						+ this.map.getMap().get(p).getTerrain().getRequiredToEnter(); i++)
+				for (int i = 0; i < this.map.getField(tempCurrent).getTerrain().getRequiredToLeave()
+						+ this.map.getField(p).getTerrain().getRequiredToEnter(); i++)
 					directions.add(Direction.Up);
 			}
 			if (p.getY() == tempCurrent.getY() + 1) {
-				for (int i = 0; i < this.map.getMap().get(tempCurrent).getTerrain().getRequiredToLeave()
-						+ this.map.getMap().get(p).getTerrain().getRequiredToEnter(); i++)
+				for (int i = 0; i < this.map.getField(tempCurrent).getTerrain().getRequiredToLeave()
+						+ this.map.getField(p).getTerrain().getRequiredToEnter(); i++)
 					directions.add(Direction.Down);
 			}
-			tempCurrent.setX(p.getX());
-			tempCurrent.setY(p.getY());
-			if (map.getMap().get(p).getTerrain() == Terrain.Mountain)
+			tempCurrent = p;
+			if (map.getField(p).getTerrain() == Terrain.Mountain)
 				visited.add(p);
 		}
 
@@ -95,8 +138,8 @@ public class Movement {
 
 	/**
 	 * Method that returns a list of directions to the nearest Mountain field to the
-	 * player The method iterates over the map and insert every Point that has a
-	 * mountain field associated to it in a list The dijkstra algorithm is called in
+	 * player The method takes the Points of all mountain fields the map keeps and
+	 * insert the ones not visited yet in a list The dijkstra algorithm is called in
 	 * oreder to find the shortest path to every point and finding the closest
 	 * Mountain to the current position of the player Going through the stack the
 	 * method checks the direction to the next Point the player needs to go to and
@@ -105,49 +148,46 @@ public class Movement {
 	 * @return List of directions to the closest mountain
 	 */
 	public ArrayList<Direction> findNearestMountain() {
-		dijkstra.clear();
 		ArrayList<Point> mountainLocations = new ArrayList<>();
-		for (Entry<Point, Field> e : map.getMap().entrySet()) {
-			if (e.getValue().getTerrain() == Terrain.Mountain && !e.getKey().equals(this.currentPosition)
-					&& !visited.contains(e.getKey()))
-				mountainLocations.add(e.getKey());
+		for (Point mountain : map.getPointsOf(Terrain.Mountain)) {
+			if (!mountain.equals(this.currentPosition) && !visited.contains(mountain))
+				mountainLocations.add(mountain);
 		}
-		this.dijkstra.runDijkstra(this.map, this.currentPosition);
-		Point closestMountain = dijkstra.closestMountain(currentPosition, mountainLocations);
+		ShortestPaths paths = this.shortestPaths(null, false);
+		Point closestMountain = paths.closestMountain(currentPosition, mountainLocations);
 		System.out.println("Closest Mountain: " + closestMountain);
-		Stack<Point> path = dijkstra.pathTo(currentPosition, closestMountain);
+		Stack<Point> path = paths.pathTo(currentPosition, closestMountain);
 		System.out.println("Path to " + closestMountain);
 		for (Point p : path)
 			System.out.println(p);
 		ArrayList<Direction> directions = new ArrayList<>();
-		Point tempCurrent = new Point(this.currentPosition.getX(), this.currentPosition.getY());
+		Point tempCurrent = this.currentPosition;
 		while (!path.isEmpty()) {
 			Point p = path.pop();
-			System.out.println(this.map.getMap().get(tempCurrent).getTerrain().getRequiredToLeave()
-					+ this.map.getMap().get(p).getTerrain().getRequiredToEnter());
+			System.out.println(this.map.getField(tempCurrent).getTerrain().getRequiredToLeave()
+					+ this.map.getField(p).getTerrain().getRequiredToEnter());
 			if (p.getX() == tempCurrent.getX() - 1) {
-				for (int i = 0; i < this.map.getMap().get(tempCurrent).getTerrain().getRequiredToLeave()
-						+ this.map.getMap().get(p).getTerrain().getRequiredToEnter(); i++)
+				for (int i = 0; i < this.map.getField(tempCurrent).getTerrain().getRequiredToLeave()
+						+ this.map.getField(p).getTerrain().getRequiredToEnter(); i++)
 					directions.add(Direction.Left);
 			}
 			if (p.getX() == tempCurrent.getX() + 1) {
-				for (int i = 0; i < this.map.getMap().get(tempCurrent).getTerrain().getRequiredToLeave()
-						+ this.map.getMap().get(p).getTerrain().getRequiredToEnter(); i++)
+				for (int i = 0; i < this.map.getField(tempCurrent).getTerrain().getRequiredToLeave()
+						+ this.map.getField(p).getTerrain().getRequiredToEnter(); i++)
 					directions.add(Direction.Right);
 			}
 			if (p.getY() == tempCurrent.getY() - 1) {
-				for (int i = 0; i < this.map.getMap().get(tempCurrent).getTerrain().getRequiredToLeave()
-						+ this.map.getMap().get(p).getTerrain().getRequiredToEnter(); i++)
+				for (int i = 0; i < this.map.getField(tempCurrent).getTerrain().getRequiredToLeave()
+						+ this.map.getField(p).getTerrain().getRequiredToEnter(); i++)
 					directions.add(Direction.Up);
 			}
 			if (p.getY() == tempCurrent.getY() + 1) {
-				for (int i = 0; i < this.map.getMap().get(tempCurrent).getTerrain().getRequiredToLeave()
-						+ this.map.getMap().get(p).getTerrain().getRequiredToEnter(); i++)
+				for (int i = 0; i < this.map.getField(tempCurrent).getTerrain().getRequiredToLeave()
+						+ this.map.getField(p).getTerrain().getRequiredToEnter(); i++)
 					directions.add(Direction.Down);
 			}
-			tempCurrent.setX(p.getX());
-			tempCurrent.setY(p.getY());
-			if (map.getMap().get(p).getTerrain() == Terrain.Mountain)
+			tempCurrent = p;
+			if (map.getField(p).getTerrain() == Terrain.Mountain)
 				visited.add(p);
 		}
 
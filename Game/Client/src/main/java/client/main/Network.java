@@ -1,14 +1,25 @@
 package client.main;
 
+import java.io.StringReader;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
 
 import org.slf4j.LoggerFactory;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
 
 import MessagesBase.EMove;
@@ -26,12 +37,26 @@ import MessagesGameState.PlayerState;
 import client.exceptions.InvalidArgumentsException;
 import client.exceptions.InvalidMapException;
 import client.exceptions.InvalidMoveException;
+import reactor.core.Disposable;
 import reactor.core.publisher.Mono;
 
 public class Network {
 	private WebClient baseWebClient;
 	private String gameId;
 	private UniquePlayerIdentifier playerid;
+	// last GameState received from the server and its ETag, sent in If-None-Match
+	private String lastGameStateETag;
+	private ResponseEnvelope<GameState> lastGameState;
+	// GameStates pushed by the server over the stream, guarded by streamLock
+	private static final long STREAM_WAIT = TimeUnit.SECONDS.toMillis(30);
+	private final Object streamLock = new Object();
+	private Disposable stream;
+	private JAXBContext streamContext;
+	private boolean streamOpen;
+	private long streamedVersion;
+	private long seenStreamedVersion;
+	private String streamedETag;
+	private ResponseEnvelope<GameState> streamedGameState;
 	private static org.slf4j.Logger logger = LoggerFactory.getLogger(Network.class);
 
 	/**
@@ -96,7 +121,7 @@ public class Network {
 	/**
 	 * Method that sends a generated halfmap from the face of the player to the
 	 * server At first check if both players have registered of a game, the check
-	 * repeats until the constraint is fulfilled A POST request is sent to
+	 * waits on the server until the constraint is fulfilled A POST request is sent to
 	 * <serverURL>/games/<gameId>/halfmaps that holds a HalfMap and the Player that
 	 * generated it as a response the server sends back status (Okay, Error) if an
 	 * error has accrued the methods throws an InvalidMapException that gives the
@@ -108,24 +133,8 @@ public class Network {
 	 */
 	public void sendMap(Player p, Map m) throws InvalidMapException {
 
-		Boolean shouldMove = false;
-		do {
-			Mono<ResponseEnvelope> webAccess = baseWebClient.method(HttpMethod.GET)
-					.uri("/" + gameId + "/states/" + p.getPlayerID()).retrieve().bodyToMono(ResponseEnvelope.class);
-
-			ResponseEnvelope<GameState> requestResult = webAccess.block();
-
-			if (requestResult.getState() == ERequestState.Error) {
-				System.out.println(requestResult.getExceptionMessage());
-			} else {
-				Set<PlayerState> players = requestResult.getData().get().getPlayers();
-				for (PlayerState player : players) {
-					if (player.getUniquePlayerID().equals(this.playerid.getUniquePlayerID())
-							&& player.getState() == EPlayerGameState.ShouldActNext)
-						shouldMove = true;
-				}
-			}
-		} while (shouldMove == false);
+		while (this.getGameState(p) != StateOfPlayer.ShouldActNext)
+			;
 
 		MapConverter convert = new MapConverter();
 		HalfMap map = convert.convertToHalfMap(this.playerid, m);
@@ -149,7 +158,8 @@ public class Network {
 	 * won or lost. A GET request is sent to
 	 * <serverURL>/games/<gameId>/states/<playerID> that asks for the current status
 	 * of the game the GameState object is converted to StateOfPlayer with the help
-	 * of the convert method in StateOfPlayer
+	 * of the convert method in StateOfPlayer. If the player was told to wait the
+	 * last time, the request waits on the server until the game changes.
 	 * 
 	 * @param p player whose information we want to recieve
 	 * @return StateOfPlayer enum that gives information if the player should move,
@@ -157,23 +167,173 @@ public class Network {
 	 */
 	public StateOfPlayer getGameState(Player p) {
 		StateOfPlayer state = null;
-		Mono<ResponseEnvelope> webAccess = baseWebClient.method(HttpMethod.GET)
-				.uri("/" + gameId + "/states/" + p.getPlayerID()).retrieve().bodyToMono(ResponseEnvelope.class);
-
-		ResponseEnvelope<GameState> requestResult = webAccess.block();
+		ResponseEnvelope<GameState> requestResult = this.fetchGameState(p,
+				this.lastGameState != null && this.findState(this.lastGameState) == StateOfPlayer.ShouldWait);
 
 		if (requestResult.getState() == ERequestState.Error) {
 			System.out.println("Client error, errormessage: " + requestResult.getExceptionMessage());
 		} else {
-			Set<PlayerState> players = requestResult.getData().get().getPlayers();
-			for (PlayerState player : players) {
-				if (player.getUniquePlayerID().equals(this.playerid.getUniquePlayerID()))
-					state = StateOfPlayer.convert(player.getState());
-			}
+			state = this.findState(requestResult);
 		}
 		return state;
 	}
 
+	/**
+	 * Method that finds the state of this player in a GameState received from the
+	 * server
+	 * 
+	 * @param result response of the server holding the GameState
+	 * @return StateOfPlayer of this player, null if he isn't in the GameState
+	 */
+	private StateOfPlayer findState(ResponseEnvelope<GameState> result) {
+		StateOfPlayer state = null;
+		Set<PlayerState> players = result.getData().get().getPlayers();
+		for (PlayerState player : players) {
+			if (player.getUniquePlayerID().equals(this.playerid.getUniquePlayerID()))
+				state = StateOfPlayer.convert(player.getState());
+		}
+		return state;
+	}
+
+	/**
+	 * Method that gets the GameState from the server. The ETag of the last
+	 * GameState is sent in If-None-Match, if the state hasn't changed the server
+	 * only answers 304 Not Modified and the last GameState is returned again. If
+	 * waitForChange is set, the poll endpoint is used, which holds the request on
+	 * the server until the game changes, instead of asking again and again.
+	 * 
+	 * @param p             player whose GameState we want to receive
+	 * @param waitForChange whether to wait on the server for the next change
+	 * @return the response of the server holding the GameState or an error
+	 */
+	private ResponseEnvelope<GameState> fetchGameState(Player p, boolean waitForChange) {
+		if (waitForChange) {
+			ResponseEnvelope<GameState> pushed = this.awaitStreamedGameState();
+			if (pushed != null)
+				return pushed;
+		}
+		long streamed;
+		synchronized (this.streamLock) {
+			streamed = this.streamedVersion;
+		}
+		String uri = "/" + gameId + "/states/" + p.getPlayerID() + (waitForChange ? "/poll" : "");
+		WebClient.RequestSpec request = baseWebClient.method(HttpMethod.GET).uri(uri);
+		if (this.lastGameStateETag != null)
+			request = request.header(HttpHeaders.IF_NONE_MATCH, this.lastGameStateETag);
+		ClientResponse response = request.exchange().block();
+		if (response.statusCode() == HttpStatus.NOT_MODIFIED)
+			return this.lastGameState;
+
+		ResponseEnvelope<GameState> result = response.bodyToMono(ResponseEnvelope.class).block();
+		if (result.getState() != ERequestState.Error) {
+			this.lastGameStateETag = response.headers().asHttpHeaders().getETag();
+			this.lastGameState = result;
+			synchronized (this.streamLock) {
+				// everything streamed before the request is at most as new as the answer
+				this.seenStreamedVersion = Math.max(this.seenStreamedVersion, streamed);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Method that opens the stream of GameStates of the player, the server pushes a
+	 * new GameState as Server-Sent Event every time the game changes. While the
+	 * stream is open, waiting for the next GameState doesn't send any request.
+	 * 
+	 * @param p player whose GameStates we want to receive
+	 */
+	public void openGameStateStream(Player p) {
+		try {
+			this.streamContext = JAXBContext.newInstance(ResponseEnvelope.class);
+		} catch (JAXBException e) {
+			logger.error("Could not open GameState stream: " + e.getMessage());
+			return;
+		}
+		synchronized (this.streamLock) {
+			this.streamOpen = true;
+		}
+		this.stream = baseWebClient.method(HttpMethod.GET).uri("/" + gameId + "/states/" + p.getPlayerID() + "/stream")
+				.accept(MediaType.TEXT_EVENT_STREAM).retrieve()
+				.bodyToFlux(new ParameterizedTypeReference<ServerSentEvent<String>>() {
+				}).subscribe(this::receiveStreamedGameState, error -> {
+					logger.info("GameState stream closed: " + error.getMessage());
+					this.streamClosed();
+				}, this::streamClosed);
+	}
+
+	/**
+	 * Method that closes the stream of GameStates if it is open
+	 */
+	public void closeGameStateStream() {
+		if (this.stream != null)
+			this.stream.dispose();
+		this.streamClosed();
+	}
+
+	/**
+	 * Called for every event of the stream, the XML in the event is unmarshalled
+	 * into the ResponseEnvelope and everyone waiting for it is woken up.
+	 * 
+	 * @param event Server-Sent Event with the gameStateID as id
+	 */
+	private void receiveStreamedGameState(ServerSentEvent<String> event) {
+		ResponseEnvelope<GameState> result;
+		try {
+			result = (ResponseEnvelope<GameState>) this.streamContext.createUnmarshaller()
+					.unmarshal(new StringReader(event.data()));
+		} catch (JAXBException e) {
+			logger.error("Could not read streamed GameState: " + e.getMessage());
+			return;
+		}
+		synchronized (this.streamLock) {
+			this.streamedETag = '"' + event.id() + '"';
+			this.streamedGameState = result;
+			this.streamedVersion++;
+			this.streamLock.notifyAll();
+		}
+	}
+
+	private void streamClosed() {
+		synchronized (this.streamLock) {
+			this.streamOpen = false;
+			this.streamLock.notifyAll();
+		}
+	}
+
+	/**
+	 * Method that waits until the stream delivers a GameState that is newer than
+	 * the last one received. If the stream isn't open or nothing arrives in time,
+	 * null is returned and the server is asked instead.
+	 * 
+	 * @return the newer GameState or null
+	 */
+	private ResponseEnvelope<GameState> awaitStreamedGameState() {
+		synchronized (this.streamLock) {
+			long deadline = System.currentTimeMillis() + STREAM_WAIT;
+			long remaining = STREAM_WAIT;
+			try {
+				while (this.streamOpen && remaining > 0 && !this.hasNewStreamedGameState()) {
+					this.streamLock.wait(remaining);
+					remaining = deadline - System.currentTimeMillis();
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			if (!this.hasNewStreamedGameState())
+				return null;
+			this.seenStreamedVersion = this.streamedVersion;
+			this.lastGameStateETag = this.streamedETag;
+			this.lastGameState = this.streamedGameState;
+			return this.streamedGameState;
+		}
+	}
+
+	private boolean hasNewStreamedGameState() {
+		return this.streamedVersion > this.seenStreamedVersion
+				&& !Objects.equals(this.streamedETag, this.lastGameStateETag);
+	}
+
 	/**
 	 * Method that get the Map that the game is currently being played on from the
 	 * server A GET request is sent to <serverURL>/games/<gameId>/states/<playerID>
@@ -188,14 +348,28 @@ public class Network {
 	 * @return Map object
 	 */
 	public Map getFullMap(Player p) {
-		EPlayerGameState help = EPlayerGameState.ShouldWait;
-		Map map = new Map(new HashMap<Point, Field>());
-		Mono<ResponseEnvelope> webAccess = baseWebClient.method(HttpMethod.GET)
-				.uri("/" + gameId + "/states/" + p.getPlayerID()).retrieve().bodyToMono(ResponseEnvelope.class);
-		ResponseEnvelope<GameState> result = webAccess.block();
+		Set<FullMapNode> nodes = this.getFullMapNodes(p);
+		if (nodes.isEmpty())
+			return new Map(new HashMap<Point, Field>());
+		MapConverter convert = new MapConverter();
+		return convert.convertToMap(nodes);
+	}
+
+	/**
+	 * Method that gets the nodes of the Map that the game is currently being played
+	 * on from the server, the same way getFullMap does, but without converting
+	 * them, so they can be compared with the map the client already has
+	 * 
+	 * @param p player who asks for the map
+	 * @return the FullMapNodes of the map, empty if there is no map yet
+	 */
+	public Set<FullMapNode> getFullMapNodes(Player p) {
+		// as long as the last GameState has no map, wait until the opponent sends his halfmap
+		ResponseEnvelope<GameState> result = this.fetchGameState(p,
+				this.lastGameState != null && !this.lastGameState.getData().get().getMap().isPresent());
 		if (result.getState() == ERequestState.Error) {
 			System.out.println("Client error, errormessage: " + result.getExceptionMessage());
-		} else {
+		} else if (result.getData().get().getMap().isPresent()) {
 			Optional<FullMap> fullmap = result.getData().get().getMap();
 			Set<FullMapNode> nodes = fullmap.get().getMapNodes();
 			int maxX = 0;
@@ -208,10 +382,9 @@ public class Network {
 			}
 			Global.setMaxX(maxX + 1);
 			Global.setMaxY(maxY + 1);
-			MapConverter convert = new MapConverter();
-			map = convert.convertToMap(nodes);
+			return nodes;
 		}
-		return map;
+		return Collections.emptySet();
 	}
 
 	/**
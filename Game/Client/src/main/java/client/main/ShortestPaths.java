@@ -0,0 +1,56 @@
+package client.main;
+
+import java.util.ArrayList;
+import java.util.Stack;
+
+/*
+ * Shortest paths from the position of the player, either searched for the
+ * current turn by Dijkstra or looked up in the DistanceTable of the map.
+ */
+public interface ShortestPaths {
+
+	/**
+	 * Method that returns the shortest distance between two fields, the distances
+	 * of all fields on the path are accumulated
+	 * 
+	 * @param currentPosition Point where the player finds himself
+	 * @param goal            Point where the player wants to get to
+	 * @return the shortest distance between currentPosition and goal
+	 */
+	int getShortestDistanceTo(Point currentPosition, Point goal);
+
+	/**
+	 * Method that returns a Stack of Points giving the path from the
+	 * currentPosition to the goal, the first step is on top of the stack
+	 * 
+	 * @param currentPosition Point where the player finds himself
+	 * @param goal            Point where the players want to get to
+	 * @return the path from currentPosition to goal, empty if the goal can't be
+	 *         reached
+	 */
+	Stack<Point> pathTo(Point currentPosition, Point goal);
+
+	/**
+	 * Method that returns the closest Field made of Mountain to the starting point
+	 * initiate dist and temp as MAX_VALUE in order to search for the closest field
+	 * iterate over the points of mountain fields and find the one closest to
+	 * currentPosition
+	 * 
+	 * @param currentPosition Point where the player finds himself
+	 * @param mountains       List of Point of mountain fields
+	 * @return the Point where the closest mountain is
+	 */
+	default Point closestMountain(Point currentPosition, ArrayList<Point> mountains) {
+		int dist = Integer.MAX_VALUE;
+		int temp = Integer.MAX_VALUE;
+		Point closest = null;
+		for (Point mountain : mountains) {
+			temp = this.getShortestDistanceTo(currentPosition, mountain);
+			if (temp < dist) {
+				dist = temp;
+				closest = mountain;
+			}
+		}
+		return closest;
+	}
+}
@@ -1,13 +1,12 @@
 package client.main;
 
-import java.util.Map.Entry;
 
 public class View {
 	/**
 	 * Constructor of the View class, taking as parameter the GameStatus object to
 	 * which it adds listeners, the listeners activate on property change of three
-	 * attributes, 1) currentPosition -> printMovement(oldPoint, newPoint) 2) Map ->
-	 * display(Map) 3) state -> printState(StateOfPlayer)
+	 * attributes, 1) currentPosition -> printMovement(oldPoint, newPoint) 2) Map or
+	 * some of its fields -> display(Map) 3) state -> printState(StateOfPlayer)
 	 * 
 	 * @param model GameStatus object acting as Model from MVC Pattern
 	 */
@@ -21,6 +20,9 @@ public class View {
 			case "MapUpdate":
 				display((Map) event.getNewValue());
 				break;
+			case "FieldsUpdate":
+				display(model.getMap());
+				break;
 			case "PlayerState":
 				printState((StateOfPlayer) event.getNewValue());
 				break;
@@ -48,25 +50,22 @@ public class View {
 		System.out.println();
 		System.out.println();
 		System.out.println();
-		Field[][] temp = new Field[Global.maxX][Global.maxY];
-		for (Entry<Point, Field> entry : m.getMap().entrySet()) {
-			temp[entry.getKey().getX()][entry.getKey().getY()] = entry.getValue();
-		}
-		for (int i = 0; i < Global.maxX; i++) {
+		for (int i = 0; i < m.getWidth(); i++) {
 			System.out.print("|" + i);
 		}
 		System.out.println();
-		for (int y = 0; y < Global.maxY; y++) {
+		for (int y = 0; y < m.getHeight(); y++) {
 			System.out.println("_________________");
-			for (int x = 0; x < Global.maxX; x++) {
+			for (int x = 0; x < m.getWidth(); x++) {
+				Field field = m.getField(x, y);
 				System.out.print('|');
-				switch (temp[x][y].getTerrain()) {
+				switch (field.getTerrain()) {
 				case Mountain:
-					if (temp[x][y].getPlayer() == PlayerOnPosition.Player1) {
+					if (field.getPlayer() == PlayerOnPosition.Player1) {
 						System.out.print("P1");
-					} else if (temp[x][y].getPlayer() == PlayerOnPosition.Player2) {
+					} else if (field.getPlayer() == PlayerOnPosition.Player2) {
 						System.out.print("P2");
-					} else if (temp[x][y].getPlayer() == PlayerOnPosition.Both) {
+					} else if (field.getPlayer() == PlayerOnPosition.Both) {
 						System.out.print("P12");
 					}
 					System.out.print("M");
@@ -76,18 +75,18 @@ public class View {
 					break;
 
 				case Grass:
-					if (temp[x][y].getFortress() == Fortress.MyFortress) {
+					if (field.getFortress() == Fortress.MyFortress) {
 						System.out.print("F1");
-					} else if (temp[x][y].getFortress() == Fortress.EnemyFortress) {
+					} else if (field.getFortress() == Fortress.EnemyFortress) {
 						System.out.print("F2");
-					} else if (temp[x][y].getTreasure() == Treasure.MyTreasure) {
+					} else if (field.getTreasure() == Treasure.MyTreasure) {
 						System.out.print("T");
 					}
-					if (temp[x][y].getPlayer() == PlayerOnPosition.Player1) {
+					if (field.getPlayer() == PlayerOnPosition.Player1) {
 						System.out.print("P1");
-					} else if (temp[x][y].getPlayer() == PlayerOnPosition.Player2) {
+					} else if (field.getPlayer() == PlayerOnPosition.Player2) {
 						System.out.print("P2");
-					} else if (temp[x][y].getPlayer() == PlayerOnPosition.Both) {
+					} else if (field.getPlayer() == PlayerOnPosition.Both) {
 						System.out.print("P12");
 					}
 					System.out.print("G");
@@ -1,12 +1,19 @@
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Random;
 import java.util.Set;
+import java.util.Stack;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -23,11 +30,15 @@ import MessagesGameState.ETreasureState;
 import MessagesGameState.FullMapNode;
 import client.exceptions.InvalidArgumentsException;
 import client.main.Controller;
+import client.main.Dijkstra;
 import client.main.Direction;
+import client.main.DistanceTable;
 import client.main.Field;
 import client.main.Fortress;
 import client.main.GameStatus;
 import client.main.GenerateMap;
+import client.main.HalfMapSearch;
+import client.main.Global;
 import client.main.Map;
 import client.main.MapConverter;
 import client.main.Movement;
@@ -83,36 +94,47 @@ public class DummyClassForTests_Tests_UsingJUnit5 {
 	private DummyClassForTests dummy = null;
 
 	/**
-	 * Parameterized Test to test the validPoint method in Point, test 1) 0,0 should
-	 * be valid test 2) 8,8 should be false
+	 * Parameterized Test to test the contains method in Map, the bounds come from
+	 * the size of the map and not from Global, test 1) 0,0 should be on an 8x8 map
+	 * test 2) 8,8 shouldn't test 3) 8,3 should be on a 16x4 map test 4) 8,4
+	 * shouldn't
 	 * 
+	 * @param width    number of fields in a row
+	 * @param height   number of rows
 	 * @param x        x coordinate of Point
 	 * @param y        y coordinate of Point
 	 * @param expected expected result
 	 */
 	@ParameterizedTest
-	@CsvSource({ "0,0,true", "8,8,false" })
-	public void testValidityOfPoint(int x, int y, Boolean expected) {
-		Point testedPointForValidity = new Point(x, y);
-		assertEquals(expected, testedPointForValidity.isValid());
-
+	@CsvSource({ "8,8,0,0,true", "8,8,8,8,false", "16,4,8,3,true", "16,4,8,4,false" })
+	public void testValidityOfPoint(int width, int height, int x, int y, boolean expected) {
+		Map map = createGrassMap(width, height);
+		assertEquals(expected, map.contains(new Point(x, y)));
 	}
 
 	/**
-	 * Test the getNeighbors() method in Point, method should return the 4 neighbors
-	 * of the point if they are valid Neighbors of Point 1,1 should be: (0,1),
-	 * (2,1), (1,0), (1,2)
+	 * Test the getNeighbors() method in Map, method should return the 4 neighbors
+	 * of the point if they are on the map. Neighbors of Point 1,1 should be:
+	 * (0,1), (2,1), (1,0), (1,2), the corner 0,0 only has (1,0) and (0,1)
 	 */
 	@Test
 	public void testGetNeighborsOfPoint() {
-		Point rootPoint = new Point(1, 1);
-		ArrayList<Point> neighborsRecieved = rootPoint.getNeighbors();
+		Map map = createGrassMap(8, 8);
+		List<Point> neighborsRecieved = map.getNeighbors(new Point(1, 1));
 		ArrayList<Point> neighborsExpected = new ArrayList<>();
 		neighborsExpected.add(new Point(0, 1));
 		neighborsExpected.add(new Point(2, 1));
 		neighborsExpected.add(new Point(1, 0));
 		neighborsExpected.add(new Point(1, 2));
-		assertEquals(neighborsRecieved, neighborsExpected);
+		assertEquals(neighborsExpected, neighborsRecieved);
+		assertEquals(Arrays.asList(new Point(1, 0), new Point(0, 1)), map.getNeighbors(new Point(0, 0)));
+	}
+
+	private static Map createGrassMap(int width, int height) {
+		Field[] fields = new Field[width * height];
+		for (int index = 0; index < fields.length; index++)
+			fields[index] = new Field(Terrain.Grass, Fortress.None, Treasure.None, PlayerOnPosition.None);
+		return new Map(width, height, fields);
 	}
 
 	/**
@@ -126,6 +148,91 @@ public class DummyClassForTests_Tests_UsingJUnit5 {
 		Map generatedMapFromTestGenerator = testGenerator.getMap();
 	}
 
+	/**
+	 * Test that the generated maps follow the rules of a HalfMap right away: the
+	 * counts of the terrains, one fortress on grass, the water on the borders and
+	 * no islands, every field that isn't water is reached from the fortress
+	 * without crossing water. The maps are drawn from fixed seeds.
+	 */
+	@Test
+	public void testGeneratedMapsFollowTheRules() {
+		for (long seed = 0; seed < 200; seed++) {
+			GenerateMap generator = new GenerateMap(new Random(seed));
+			Map map = generator.getMap();
+			assertTrue(generator.getAttempts() <= 3);
+			assertEquals(32, map.getMap().size());
+			assertTrue(map.getPointsOf(Terrain.Mountain).size() >= 3);
+			assertTrue(map.getPointsOf(Terrain.Water).size() >= 4);
+			assertTrue(map.getPointsOf(Terrain.Grass).size() >= 15);
+			int widthBorderWater = 0;
+			int heightBorderWater = 0;
+			for (Point water : map.getPointsOf(Terrain.Water)) {
+				if (water.getY() == 0 || water.getY() == 3)
+					widthBorderWater++;
+				if (water.getX() == 0 || water.getX() == 7)
+					heightBorderWater++;
+			}
+			assertTrue(widthBorderWater <= 3);
+			assertTrue(heightBorderWater <= 1);
+			int fortresses = 0;
+			for (Field field : map.getMap().values()) {
+				if (field.getFortress() == Fortress.MyFortress)
+					fortresses++;
+			}
+			assertEquals(1, fortresses);
+			Point fortress = map.getMyFortressPosition();
+			assertEquals(Terrain.Grass, map.getField(fortress).getTerrain());
+			Dijkstra dijkstra = new Dijkstra();
+			dijkstra.runDijkstra(map, fortress);
+			for (Terrain terrain : new Terrain[] { Terrain.Grass, Terrain.Mountain }) {
+				for (Point p : map.getPointsOf(terrain))
+					assertTrue(p.equals(fortress) || avoidsWater(map, dijkstra.pathTo(fortress, p)));
+			}
+		}
+	}
+
+	private static boolean avoidsWater(Map map, Stack<Point> path) {
+		if (path.isEmpty())
+			return false;
+		for (Point p : path) {
+			if (map.getField(p).getTerrain() == Terrain.Water)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Test that the HalfMapSearch scores at least one map on every thread of the
+	 * pool and returns the best of all maps it scored, the map follows the rules
+	 * like every generated map, and that a fortress next to a mountain scores
+	 * lower than the same map with the mountain further away.
+	 */
+	@Test
+	public void testHalfMapSearchReturnsBestMapWithinBudget() {
+		ForkJoinPool pool = new ForkJoinPool(2);
+		HalfMapSearch search = new HalfMapSearch(200, pool);
+		Map best = search.search();
+		pool.shutdown();
+		assertTrue(search.getEvaluated() >= pool.getParallelism());
+		assertEquals(32, best.getMap().size());
+		assertEquals(Terrain.Grass, best.getField(best.getMyFortressPosition()).getTerrain());
+		assertEquals(search.getBestScore(), HalfMapSearch.score(best, new Dijkstra()));
+		assertTrue(search.getBestScore() > 0);
+
+		HashMap<Point, Field> fields = new HashMap<>();
+		for (int y = 0; y < 4; y++) {
+			for (int x = 0; x < 8; x++) {
+				Fortress fortress = x == 0 && y == 0 ? Fortress.MyFortress : Fortress.None;
+				fields.put(new Point(x, y), new Field(Terrain.Grass, fortress, Treasure.None, PlayerOnPosition.None));
+			}
+		}
+		fields.put(new Point(5, 2), new Field(Terrain.Mountain, Fortress.None, Treasure.None, PlayerOnPosition.None));
+		int hidden = HalfMapSearch.score(new Map(fields), new Dijkstra());
+		fields.put(new Point(5, 2), new Field(Terrain.Grass, Fortress.None, Treasure.None, PlayerOnPosition.None));
+		fields.put(new Point(1, 1), new Field(Terrain.Mountain, Fortress.None, Treasure.None, PlayerOnPosition.None));
+		assertTrue(HalfMapSearch.score(new Map(fields), new Dijkstra()) < hidden);
+	}
+
 	/**
 	 * Test the convertToHalfMap() method in MapConverter, test Map is generated:
 	 * (0,0,Grass,MyFortress,None,None); (0,1,Water,None,None,None);
@@ -197,6 +304,140 @@ public class DummyClassForTests_Tests_UsingJUnit5 {
 				converterBeingTested.convertToMap(fullMapNodesBeingConvertedToMap).getMap());
 	}
 
+	/**
+	 * Test the updateMap() method in MapConverter, the player moves from (0,0) to
+	 * (0,2) and discovers the enemy fortress on (0,1), only these three fields
+	 * should be changed in place and reported, the field (0,3) stays the same. A
+	 * second update with the same nodes should change nothing.
+	 */
+	@Test
+	public void testUpdateMapChangesOnlyChangedFields() {
+		Set<FullMapNode> before = new HashSet<>();
+		before.add(new FullMapNode(ETerrain.Grass, EPlayerPositionState.MyPosition,
+				ETreasureState.NoOrUnknownTreasureState, EFortState.MyFortPresent, 0, 0));
+		before.add(new FullMapNode(ETerrain.Grass, EPlayerPositionState.NoPlayerPresent,
+				ETreasureState.NoOrUnknownTreasureState, EFortState.NoOrUnknownFortState, 0, 1));
+		before.add(new FullMapNode(ETerrain.Mountain, EPlayerPositionState.NoPlayerPresent,
+				ETreasureState.NoOrUnknownTreasureState, EFortState.NoOrUnknownFortState, 0, 2));
+		before.add(new FullMapNode(ETerrain.Grass, EPlayerPositionState.EnemyPlayerPosition,
+				ETreasureState.NoOrUnknownTreasureState, EFortState.NoOrUnknownFortState, 0, 3));
+		Set<FullMapNode> after = new HashSet<>();
+		after.add(new FullMapNode(ETerrain.Grass, EPlayerPositionState.NoPlayerPresent,
+				ETreasureState.NoOrUnknownTreasureState, EFortState.MyFortPresent, 0, 0));
+		after.add(new FullMapNode(ETerrain.Grass, EPlayerPositionState.NoPlayerPresent,
+				ETreasureState.NoOrUnknownTreasureState, EFortState.EnemyFortPresent, 0, 1));
+		after.add(new FullMapNode(ETerrain.Mountain, EPlayerPositionState.MyPosition,
+				ETreasureState.NoOrUnknownTreasureState, EFortState.NoOrUnknownFortState, 0, 2));
+		after.add(new FullMapNode(ETerrain.Grass, EPlayerPositionState.EnemyPlayerPosition,
+				ETreasureState.NoOrUnknownTreasureState, EFortState.NoOrUnknownFortState, 0, 3));
+
+		MapConverter converterBeingTested = new MapConverter();
+		Map map = converterBeingTested.convertToMap(before);
+		Field fieldOfFortress = map.getMap().get(new Point(0, 1));
+		List<Point> changed = converterBeingTested.updateMap(map, after);
+
+		assertEquals(3, changed.size());
+		assertTrue(changed.contains(new Point(0, 0)) && changed.contains(new Point(0, 1))
+				&& changed.contains(new Point(0, 2)));
+		assertEquals(converterBeingTested.convertToMap(after).getMap(), map.getMap());
+		assertTrue(fieldOfFortress == map.getMap().get(new Point(0, 1)));
+		assertTrue(converterBeingTested.updateMap(map, after).isEmpty());
+	}
+
+	/**
+	 * Test the updateFields() method in GameStatus, after the player moved only a
+	 * FieldsUpdate with the changed points and the new position should be fired,
+	 * no FieldsUpdate should be fired if nothing changed.
+	 */
+	@Test
+	public void testUpdateFieldsFiresOnlyRealChanges() {
+		Set<FullMapNode> nodes = new HashSet<>();
+		nodes.add(new FullMapNode(ETerrain.Grass, EPlayerPositionState.MyPosition,
+				ETreasureState.NoOrUnknownTreasureState, EFortState.MyFortPresent, 0, 0));
+		nodes.add(new FullMapNode(ETerrain.Grass, EPlayerPositionState.NoPlayerPresent,
+				ETreasureState.NoOrUnknownTreasureState, EFortState.NoOrUnknownFortState, 1, 0));
+		MapConverter converter = new MapConverter();
+		GameStatus model = new GameStatus();
+		model.setMap(converter.convertToMap(nodes));
+		List<String> events = new ArrayList<>();
+		model.addListener(event -> events.add(event.getPropertyName()));
+
+		model.updateFields(converter.updateMap(model.getMap(), nodes));
+		assertTrue(events.isEmpty());
+
+		Set<FullMapNode> moved = new HashSet<>();
+		moved.add(new FullMapNode(ETerrain.Grass, EPlayerPositionState.NoPlayerPresent,
+				ETreasureState.NoOrUnknownTreasureState, EFortState.MyFortPresent, 0, 0));
+		moved.add(new FullMapNode(ETerrain.Grass, EPlayerPositionState.MyPosition,
+				ETreasureState.NoOrUnknownTreasureState, EFortState.NoOrUnknownFortState, 1, 0));
+		model.updateFields(converter.updateMap(model.getMap(), moved));
+		assertTrue(events.contains("PlayerPosition") && events.contains("FieldsUpdate"));
+		assertEquals(new Point(1, 0), model.getCurrentPosition());
+	}
+
+	/**
+	 * Test that the Map keeps the positions of the player, the treasure and the
+	 * enemy fortress up to date when its fields are changed, the player moves
+	 * from (0,0) to (1,0) where he sees the treasure on (1,1), the mountain on
+	 * (0,1) is kept in the list of mountains.
+	 */
+	@Test
+	public void testMapIndexesFollowChangedFields() {
+		HashMap<Point, Field> fields = new HashMap<>();
+		fields.put(new Point(0, 0), new Field(Terrain.Grass, Fortress.MyFortress, Treasure.None, PlayerOnPosition.Player1));
+		fields.put(new Point(1, 0), new Field(Terrain.Grass, Fortress.None, Treasure.None, PlayerOnPosition.None));
+		fields.put(new Point(0, 1), new Field(Terrain.Mountain, Fortress.None, Treasure.None, PlayerOnPosition.None));
+		fields.put(new Point(1, 1), new Field(Terrain.Grass, Fortress.None, Treasure.None, PlayerOnPosition.Player2));
+		Map mapBeingTested = new Map(fields);
+		assertEquals(new Point(0, 0), mapBeingTested.getCurrentPosition());
+		assertEquals(new Point(1, 1), mapBeingTested.getEnemyPosition());
+		assertEquals(false, mapBeingTested.isTreasurePresent());
+
+		mapBeingTested.updateField(new Point(0, 0), Fortress.MyFortress, Treasure.None, PlayerOnPosition.None);
+		mapBeingTested.updateField(new Point(1, 0), Fortress.None, Treasure.None, PlayerOnPosition.Player1);
+		mapBeingTested.updateField(new Point(1, 1), Fortress.None, Treasure.MyTreasure, PlayerOnPosition.Player2);
+
+		assertEquals(new Point(1, 0), mapBeingTested.getCurrentPosition());
+		assertEquals(true, mapBeingTested.isTreasurePresent());
+		assertEquals(new Point(1, 1), mapBeingTested.getTreasurePosition());
+		assertEquals(false, mapBeingTested.isEnemyFortressPresent());
+		assertEquals(new Point(0, 0), mapBeingTested.getMyFortressPosition());
+		assertEquals(1, mapBeingTested.getPointsOf(Terrain.Mountain).size());
+		assertTrue(mapBeingTested.getPointsOf(Terrain.Mountain).contains(new Point(0, 1)));
+	}
+
+	/**
+	 * Test that the fields of a 16x4 map are still found after the size in Global
+	 * changed to 8x8, the map carries its own size and the hashCode of a Point
+	 * doesn't depend on Global.
+	 */
+	@Test
+	public void testMapLookupsDoNotDependOnGlobalSize() {
+		HashMap<Point, Field> fields = new HashMap<>();
+		for (int y = 0; y < 4; y++) {
+			for (int x = 0; x < 16; x++) {
+				Terrain terrain = x == 12 && y == 3 ? Terrain.Mountain : Terrain.Grass;
+				fields.put(new Point(x, y), new Field(terrain, Fortress.None, Treasure.None, PlayerOnPosition.None));
+			}
+		}
+		Map mapBeingTested = new Map(fields);
+		int hashCode = new Point(12, 3).hashCode();
+		Global.setMaxX(8);
+		Global.setMaxY(8);
+		try {
+			assertEquals(16, mapBeingTested.getWidth());
+			assertEquals(4, mapBeingTested.getHeight());
+			assertEquals(hashCode, new Point(12, 3).hashCode());
+			assertEquals(Terrain.Mountain, mapBeingTested.getField(new Point(12, 3)).getTerrain());
+			assertEquals(Terrain.Mountain, mapBeingTested.getMap().get(new Point(12, 3)).getTerrain());
+			assertEquals(null, mapBeingTested.getField(3, 12));
+			assertEquals(64, mapBeingTested.getMap().size());
+		} finally {
+			Global.setMaxX(8);
+			Global.setMaxY(4);
+		}
+	}
+
 	/**
 	 * Test of findNearestMountain() method of the Movement class Map is generated
 	 * as such that the Player is on Point (0,1) and the closest Mountain is on
@@ -242,6 +483,191 @@ public class DummyClassForTests_Tests_UsingJUnit5 {
 		assertEquals(expectedDirectionsToGetToClosestMountain, movementBeingTested.findNearestMountain());
 	}
 
+	/**
+	 * Test that the Dijkstra class finds the same paths and distances as the
+	 * former implementation based on lists and HashMaps, from every field of
+	 * random 8x8 and 16x4 maps to every other field. Both maps of a size use the
+	 * same seed, so the test always checks the same maps.
+	 */
+	@ParameterizedTest
+	@CsvSource({ "8,8,1", "8,8,2", "16,4,3", "16,4,4" })
+	public void testDijkstraFindsSamePathsAsFormerImplementation(int width, int height, long seed) {
+		Global.setMaxX(width);
+		Global.setMaxY(height);
+		try {
+			Map map = createRandomMap(width, height, new Random(seed));
+			Dijkstra dijkstraBeingTested = new Dijkstra();
+			for (Point start : map.getMap().keySet()) {
+				FormerDijkstra expected = new FormerDijkstra(map, start);
+				dijkstraBeingTested.clear();
+				dijkstraBeingTested.runDijkstra(map, start);
+				for (Point goal : map.getMap().keySet()) {
+					assertEquals(expected.pathTo(start, goal), dijkstraBeingTested.pathTo(start, goal));
+					assertEquals(expected.getShortestDistanceTo(start, goal),
+							dijkstraBeingTested.getShortestDistanceTo(start, goal));
+				}
+			}
+		} finally {
+			Global.setMaxX(8);
+			Global.setMaxY(4);
+		}
+	}
+
+	/**
+	 * Test that A* finds paths as short as the ones Dijkstra finds, from the
+	 * corner of random maps to every other field, and that it visits fewer fields
+	 * than Dijkstra to cross the map as long as no water is in the way.
+	 */
+	@ParameterizedTest
+	@CsvSource({ "8,8,1", "16,4,2", "32,32,3" })
+	public void testAStarFindsPathsAsShortAsDijkstra(int width, int height, long seed) {
+		Global.setMaxX(width);
+		Global.setMaxY(height);
+		try {
+			Map map = createRandomMap(width, height, new Random(seed));
+			Dijkstra dijkstra = new Dijkstra();
+			Dijkstra aStar = new Dijkstra();
+			Point start = new Point(0, 0);
+			dijkstra.runDijkstra(map, start);
+			for (Point goal : map.getMap().keySet()) {
+				aStar.clear();
+				aStar.runAStar(map, start, goal);
+				assertEquals(pathCost(map, start, dijkstra.pathTo(start, goal)),
+						pathCost(map, start, aStar.pathTo(start, goal)));
+			}
+			HashMap<Point, Field> withoutWater = new HashMap<>();
+			for (Entry<Point, Field> e : map.getMap().entrySet()) {
+				Terrain terrain = e.getValue().getTerrain() == Terrain.Water ? Terrain.Grass : e.getValue().getTerrain();
+				withoutWater.put(e.getKey(), new Field(terrain, Fortress.None, Treasure.None, PlayerOnPosition.None));
+			}
+			dijkstra.runDijkstra(new Map(withoutWater), start);
+			aStar.clear();
+			aStar.runAStar(new Map(withoutWater), start, new Point(width / 2, height / 2));
+			assertTrue(aStar.getExpandedFields() < dijkstra.getExpandedFields());
+		} finally {
+			Global.setMaxX(8);
+			Global.setMaxY(4);
+		}
+	}
+
+	/**
+	 * Test that the DistanceTable looks up the same paths and distances Dijkstra
+	 * searches, between all fields of random 8x8 and 16x4 maps, and that the
+	 * table of 64 fields takes 32KB.
+	 */
+	@ParameterizedTest
+	@CsvSource({ "8,8,1", "16,4,2" })
+	public void testDistanceTableHasSamePathsAsDijkstra(int width, int height, long seed) {
+		Global.setMaxX(width);
+		Global.setMaxY(height);
+		try {
+			Map map = createRandomMap(width, height, new Random(seed));
+			DistanceTable tableBeingTested = new DistanceTable(map);
+			Dijkstra dijkstra = new Dijkstra();
+			for (Point start : map.getMap().keySet()) {
+				dijkstra.clear();
+				dijkstra.runDijkstra(map, start);
+				for (Point goal : map.getMap().keySet()) {
+					assertEquals(dijkstra.pathTo(start, goal), tableBeingTested.pathTo(start, goal));
+					assertEquals(dijkstra.getShortestDistanceTo(start, goal),
+							tableBeingTested.getShortestDistanceTo(start, goal));
+					if (!start.equals(goal))
+						assertEquals(pathCost(map, start, dijkstra.pathTo(start, goal)),
+								tableBeingTested.getDistance(start, goal));
+				}
+			}
+			assertEquals(32L * 1024, tableBeingTested.getMemoryFootprint());
+		} finally {
+			Global.setMaxX(8);
+			Global.setMaxY(4);
+		}
+	}
+
+	private static int pathCost(Map map, Point start, Stack<Point> path) {
+		int cost = 0;
+		Point from = start;
+		while (!path.isEmpty()) {
+			Point to = path.pop();
+			cost += map.getMap().get(from).getTerrain().getRequiredToLeave()
+					+ map.getMap().get(to).getTerrain().getRequiredToEnter();
+			from = to;
+		}
+		return cost;
+	}
+
+	private static Map createRandomMap(int width, int height, Random random) {
+		HashMap<Point, Field> fields = new HashMap<>();
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				Terrain terrain = Terrain.values()[random.nextInt(Terrain.values().length)];
+				fields.put(new Point(x, y), new Field(terrain, Fortress.None, Treasure.None, PlayerOnPosition.None));
+			}
+		}
+		return new Map(fields);
+	}
+
+	/*
+	 * The Dijkstra implementation the client used before, kept to check that the
+	 * paths didn't change.
+	 */
+	private static class FormerDijkstra {
+		private ArrayList<Point> points = new ArrayList<>();
+		private HashMap<Point, Integer> distances = new HashMap<>();
+		private HashMap<Point, Point> nearest = new HashMap<>();
+
+		FormerDijkstra(Map map, Point currentPosition) {
+			for (Entry<Point, Field> e : map.getMap().entrySet()) {
+				this.distances.put(e.getKey(), Integer.MAX_VALUE);
+				this.nearest.put(e.getKey(), null);
+				this.points.add(e.getKey());
+			}
+			this.distances.replace(currentPosition, 0);
+			this.nearest.replace(currentPosition, currentPosition);
+			while (points.size() > 0) {
+				Point p = this.points.get(0);
+				for (Point candidate : this.points) {
+					if (this.distances.get(candidate) < this.distances.get(p))
+						p = candidate;
+				}
+				this.points.remove(p);
+				for (Point neighbor : map.getNeighbors(p)) {
+					if (this.points.contains(neighbor)) {
+						int alt = this.distances.get(p) + map.getMap().get(p).getTerrain().getRequiredToLeave()
+								+ map.getMap().get(neighbor).getTerrain().getRequiredToEnter();
+						if (alt < this.distances.get(neighbor)) {
+							this.distances.replace(neighbor, alt);
+							this.nearest.replace(neighbor, p);
+						}
+					}
+				}
+			}
+		}
+
+		int getShortestDistanceTo(Point currentPosition, Point goal) {
+			Point u = goal;
+			int dist = 0;
+			while (true) {
+				dist += distances.get(u);
+				u = nearest.get(u);
+				if (u.equals(currentPosition))
+					break;
+			}
+			return dist;
+		}
+
+		Stack<Point> pathTo(Point currentPosition, Point goal) {
+			Point u = goal;
+			Stack<Point> path = new Stack<>();
+			while (true) {
+				path.add(u);
+				u = nearest.get(u);
+				if (u.equals(currentPosition))
+					break;
+			}
+			return path;
+		}
+	}
+
 	/**
 	 * Test the GameStatus class that acts as Model and the View class using Mockito
 	 * to mock the Network class, on request of registerPlayer() the String
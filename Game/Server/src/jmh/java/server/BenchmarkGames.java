@@ -0,0 +1,53 @@
+package server;
+
+import MessagesBase.PlayerRegistration;
+import MessagesGameState.EPlayerGameState;
+import server.game.Game;
+import server.game.Player;
+import server.game.TestGameConcurrency;
+
+/*
+ * Games the benchmarks work on, the HalfMaps come from the fixture of the
+ * tests, which are on the classpath of the benchmarks.
+ */
+public class BenchmarkGames {
+
+	/**
+	 * Method that creates a game with two registered players
+	 *
+	 * @param gameID ID of the game
+	 * @return the new Game
+	 */
+	public static Game withPlayers(String gameID) throws Exception {
+		Game game = new Game(gameID);
+		game.addPlayer(new Player(new PlayerRegistration("FName1", "LName1", "StudentID1")));
+		game.addPlayer(new Player(new PlayerRegistration("FName2", "LName2", "StudentID2")));
+		return game;
+	}
+
+	/**
+	 * Method that creates a game in which both players have sent their HalfMap
+	 *
+	 * @param gameID ID of the game
+	 * @return the new Game
+	 */
+	public static Game withBoard(String gameID) throws Exception {
+		Game game = withPlayers(gameID);
+		Player first = nextPlayer(game);
+		game.addHalfMap(TestGameConcurrency.createValidHalfMap(first, false));
+		game.addHalfMap(TestGameConcurrency.createValidHalfMap(nextPlayer(game), true));
+		return game;
+	}
+
+	/**
+	 * @param game Game with two players
+	 * @return the player that should act next
+	 */
+	public static Player nextPlayer(Game game) {
+		for (Player player : game.getPlayers()) {
+			if (player.getPlayerGameState() == EPlayerGameState.ShouldActNext)
+				return player;
+		}
+		throw new IllegalStateException("No player should act next");
+	}
+}
@@ -0,0 +1,56 @@
+package server.convertors;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import MessagesBase.ResponseEnvelope;
+import MessagesGameState.GameState;
+import server.BenchmarkGames;
+import server.game.Game;
+import server.game.GameSnapshot;
+import server.game.Player;
+
+/*
+ * Measures building and marshalling the GameState of a game in which both maps
+ * are sent, once from scratch and once as a state request sees it with the
+ * cache of the snapshot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GameStateBenchmark {
+	private Game game;
+	private GameSnapshot snapshot;
+	private Player player;
+	private ResponseEnvelope<GameState> envelope;
+
+	@Setup
+	public void createGame() throws Exception {
+		this.game = BenchmarkGames.withBoard("bench");
+		this.snapshot = this.game.getSnapshot();
+		this.player = this.game.getPlayers().get(0);
+		this.envelope = new ResponseEnvelope<>(GameStateConverter.convert(this.snapshot, this.player));
+	}
+
+	@Benchmark
+	public GameState convert() {
+		return GameStateConverter.convert(this.snapshot, this.player);
+	}
+
+	@Benchmark
+	public byte[] marshal() {
+		return GameStateSerializer.serialize(this.envelope);
+	}
+
+	@Benchmark
+	public byte[] cachedStateRequest() {
+		return GameStateSerializer.serialize(this.game, this.player);
+	}
+}
@@ -0,0 +1,70 @@
+package server.game;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import MessagesBase.HalfMap;
+import MessagesGameState.FullMap;
+import server.BenchmarkGames;
+
+/*
+ * Measures checking a HalfMap and combining two of them into the board, the
+ * board took the place of MapConverter.combineHalfMaps.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MapBenchmark {
+	private Game game;
+	private HalfMap first;
+	private HalfMap second;
+	private GameBoard board;
+	private Random random;
+
+	@Setup
+	public void createGame() throws Exception {
+		this.game = BenchmarkGames.withPlayers("bench");
+		Player sender = BenchmarkGames.nextPlayer(this.game);
+		Player opponent = this.game.getPlayers().get(0) == sender ? this.game.getPlayers().get(1)
+				: this.game.getPlayers().get(0);
+		this.first = TestGameConcurrency.createValidHalfMap(sender, false);
+		this.second = TestGameConcurrency.createValidHalfMap(opponent, true);
+		this.random = new Random(42);
+		this.board = new GameBoard(this.first, this.second, this.random);
+	}
+
+	@Benchmark
+	public HalfMap verify() throws Exception {
+		MapValidator.verify(this.first, this.game);
+		return this.first;
+	}
+
+	@Benchmark
+	public List<MapViolation> validate() {
+		return MapValidator.validate(this.first);
+	}
+
+	@Benchmark
+	public long fingerprint() {
+		return HalfMapFingerprint.of(this.first);
+	}
+
+	@Benchmark
+	public GameBoard combineHalfMaps() {
+		return new GameBoard(this.first, this.second, this.random);
+	}
+
+	@Benchmark
+	public FullMap toFullMap() {
+		return this.board.toFullMap(0);
+	}
+}
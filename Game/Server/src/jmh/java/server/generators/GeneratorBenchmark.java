@@ -0,0 +1,61 @@
+package server.generators;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import server.game.Game;
+import server.storage.GameStorage;
+
+/*
+ * Measures how long generating a gameID and a gameStateID takes. The gameIDs
+ * are checked against the server storage after it was filled with games, the
+ * threaded variant shows whether the generators contend on shared state.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GeneratorBenchmark {
+	private GameIDGenerator gameIDGenerator;
+
+	@Setup
+	public void fillStorage() throws Exception {
+		this.gameIDGenerator = new GameIDGenerator();
+		GameStorage storage = GameStorage.getStorage();
+		while (storage.size() < 999)
+			storage.storeGame(new Game(this.gameIDGenerator.generate()));
+	}
+
+	@State(Scope.Thread)
+	public static class PerThread {
+		GameStateIDGenerator gameStateIDGenerator = new GameStateIDGenerator();
+	}
+
+	@Benchmark
+	public String gameID() {
+		return this.gameIDGenerator.generate();
+	}
+
+	@Benchmark
+	@Threads(4)
+	public String gameIDThreaded() {
+		return this.gameIDGenerator.generate();
+	}
+
+	@Benchmark
+	public String gameStateID(PerThread state) {
+		return state.gameStateIDGenerator.generate();
+	}
+
+	@Benchmark
+	public String newGameStateIDGenerator() {
+		return new GameStateIDGenerator().generate();
+	}
+}
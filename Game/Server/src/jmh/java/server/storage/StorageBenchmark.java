@@ -0,0 +1,55 @@
+package server.storage;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import server.game.Game;
+import server.generators.GameIDGenerator;
+
+/*
+ * Measures lookups and gameID generation on a storage holding a given number of
+ * games, neither of them should get slower as the storage fills. The lookup
+ * time with 100000 games should stay in the same order of magnitude as the one
+ * with 10 games, a linear scan would be thousands of times slower.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class StorageBenchmark {
+	@Param({ "10", "100", "1000", "10000", "100000" })
+	public int population;
+
+	private GameStorage storage;
+	private GameIDGenerator generator;
+	private String[] gameIDs;
+
+	@Setup
+	public void fillStorage() throws Exception {
+		this.storage = new GameStorage(this.population, null);
+		this.generator = new GameIDGenerator(this.storage);
+		this.gameIDs = new String[this.population];
+		for (int i = 0; i < this.population; i++) {
+			this.gameIDs[i] = this.generator.generate();
+			this.storage.storeGame(new Game(this.gameIDs[i]));
+		}
+	}
+
+	@Benchmark
+	public Game getGameById() throws Exception {
+		return this.storage.getGameById(this.gameIDs[ThreadLocalRandom.current().nextInt(this.population)]);
+	}
+
+	@Benchmark
+	public String generateGameID() {
+		return this.generator.generate();
+	}
+}
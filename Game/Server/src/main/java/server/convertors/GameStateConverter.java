@@ -9,30 +9,51 @@ import MessagesGameState.FullMap;
 import MessagesGameState.GameState;
 import MessagesGameState.PlayerState;
 import server.game.Game;
+import server.game.GameSnapshot;
 import server.game.Player;
 
 public class GameStateConverter {
 	/**
 	 * Static method that converts a Game object to a GameState object in order to be sent to the Player.
-	 * The method converts the Player objects stored in the game to PlayerState objects using the PlayerStateConverter.convert static method.
-	 * If the current player being converted is not the same that requested the GameState it passes the fakeID that has been generated for them.
+	 * The GameState is cached in the current GameSnapshot of the game, so it is only built once per gameStateID
+	 * and player, every later request until the next change of the game gets the same object.
 	 * 
 	 * @param game Game for which the state is asked for
 	 * @param playerThatRequests the Player that requested the GameState, used in order to hide the oponent's id.
 	 * @return the GameState of the game
 	 */
 	public static GameState convert(Game game, Player playerThatRequests) {
+		GameSnapshot snapshot = game.getSnapshot();
+		GameState gameState = snapshot.getGameState(playerThatRequests, player -> convert(snapshot, player));
+		if (gameState == null)
+			return convert(snapshot, playerThatRequests);
+		return gameState;
+	}
+
+	/**
+	 * Static method that builds the GameState of a GameSnapshot for a Player.
+	 * The method converts the Player objects stored in the snapshot to PlayerState objects using the PlayerStateConverter.convert static method.
+	 * If the current player being converted is not the same that requested the GameState it passes the fakeID that has been generated for them.
+	 * Everything is read from the same GameSnapshot of the game, so the GameState never mixes two states of the game.
+	 * 
+	 * @param snapshot GameSnapshot of the game for which the state is asked for
+	 * @param playerThatRequests the Player that requested the GameState, used in order to hide the oponent's id.
+	 * @return the GameState of the snapshot
+	 */
+	public static GameState convert(GameSnapshot snapshot, Player playerThatRequests) {
 		Set<PlayerState> players = new HashSet<>();
-		for (Player player : game.getPlayers()) {
+		for (Player player : snapshot.getPlayers()) {
 			if (player.equals(playerThatRequests))
-				players.add(PlayerStateConverter.convert(player, player.getPlayerID()));
+				players.add(PlayerStateConverter.convert(player, snapshot.getPlayerGameState(player), player.getPlayerID(),
+						snapshot.hasCollectedTreasure(player)));
 			else {
-				UniquePlayerIdentifier fakeID = game.getFakeIDs().get(player.getPlayerID());
-				players.add(PlayerStateConverter.convert(player, fakeID));
+				UniquePlayerIdentifier fakeID = snapshot.getFakeIDs().get(player.getPlayerID());
+				players.add(PlayerStateConverter.convert(player, snapshot.getPlayerGameState(player), fakeID,
+						snapshot.hasCollectedTreasure(player)));
 			}
 		}
-		Optional<FullMap> fullMap = Optional.ofNullable(game.getFullMapForPlayer(playerThatRequests.getPlayerID().getUniquePlayerID()));
+		Optional<FullMap> fullMap = Optional.ofNullable(snapshot.getFullMapForPlayer(playerThatRequests.getPlayerID().getUniquePlayerID()));
 
-		return new GameState(fullMap, players, game.getGameStateID());
+		return new GameState(fullMap, players, snapshot.getGameStateID());
 	}
 }
@@ -0,0 +1,77 @@
+package server.convertors;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+
+import MessagesBase.ResponseEnvelope;
+import MessagesGameState.GameState;
+import server.game.Game;
+import server.game.GameSnapshot;
+import server.game.Player;
+
+public class GameStateSerializer {
+	private static final JAXBContext context = createContext();
+
+	private static JAXBContext createContext() {
+		try {
+			return JAXBContext.newInstance(ResponseEnvelope.class);
+		} catch (JAXBException e) {
+			throw new IllegalStateException("Could not create JAXBContext for ResponseEnvelope", e);
+		}
+	}
+
+	/**
+	 * Static method that returns the XML of the ResponseEnvelope holding the
+	 * GameState of a player, exactly as it would be written by spring. The bytes
+	 * are cached in the current GameSnapshot of the game next to the GameState,
+	 * so JAXB only runs once per gameStateID and player.
+	 * 
+	 * @param game               Game for which the state is asked for
+	 * @param playerThatRequests the Player that requested the GameState
+	 * @return the XML of the ResponseEnvelope with the GameState
+	 */
+	public static byte[] serialize(Game game, Player playerThatRequests) {
+		return serialize(game.getSnapshot(), playerThatRequests);
+	}
+
+	/**
+	 * Static method that returns the XML of the ResponseEnvelope holding the
+	 * GameState a player sees in a given GameSnapshot, cached in the snapshot.
+	 * 
+	 * @param snapshot           GameSnapshot of the game for which the state is
+	 *                           asked for
+	 * @param playerThatRequests the Player that requested the GameState
+	 * @return the XML of the ResponseEnvelope with the GameState
+	 */
+	public static byte[] serialize(GameSnapshot snapshot, Player playerThatRequests) {
+		byte[] serialized = snapshot.getSerializedGameState(playerThatRequests,
+				player -> serialize(new ResponseEnvelope<>(snapshot.getGameState(player,
+						requester -> GameStateConverter.convert(snapshot, requester)))));
+		if (serialized == null)
+			return serialize(new ResponseEnvelope<>(GameStateConverter.convert(snapshot, playerThatRequests)));
+		return serialized;
+	}
+
+	/**
+	 * Static method that marshals a ResponseEnvelope with a GameState to XML. A
+	 * new Marshaller is created every time as they aren't thread safe.
+	 * 
+	 * @param envelope ResponseEnvelope that needs to be marshalled
+	 * @return the XML encoded in UTF-8
+	 */
+	public static byte[] serialize(ResponseEnvelope<GameState> envelope) {
+		try {
+			Marshaller marshaller = context.createMarshaller();
+			marshaller.setProperty(Marshaller.JAXB_ENCODING, StandardCharsets.UTF_8.name());
+			ByteArrayOutputStream out = new ByteArrayOutputStream(2048);
+			marshaller.marshal(envelope, out);
+			return out.toByteArray();
+		} catch (JAXBException e) {
+			throw new IllegalStateException("Could not marshal GameState", e);
+		}
+	}
+}
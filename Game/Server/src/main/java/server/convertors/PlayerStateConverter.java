@@ -1,6 +1,7 @@
 package server.convertors;
 
 import MessagesBase.UniquePlayerIdentifier;
+import MessagesGameState.EPlayerGameState;
 import MessagesGameState.PlayerState;
 import server.game.Player;
 
@@ -17,7 +18,24 @@ public class PlayerStateConverter {
 	 * @return converted PlayerState object
 	 */
 	public static PlayerState convert(Player player, UniquePlayerIdentifier playerID) {
-		return new PlayerState(player.getFirstName(), player.getLastName(), player.getStudentID(),
-				player.getPlayerGameState(), playerID, false);
+		return convert(player, player.getPlayerGameState(), playerID, false);
+	}
+
+	/**
+	 * Method that converts a Player object to a PlayerState with a given
+	 * EPlayerGameState, used when the state is taken from a GameSnapshot instead
+	 * of the player object itself.
+	 * 
+	 * @param player          Player object that needs to be converted.
+	 * @param playerGameState the EPlayerGameState of the player
+	 * @param playerID        Given playerID stored in game object, that gives the
+	 *                        real id or a fake one.
+	 * @param collectedTreasure whether the player has collected his treasure
+	 * @return converted PlayerState object
+	 */
+	public static PlayerState convert(Player player, EPlayerGameState playerGameState,
+			UniquePlayerIdentifier playerID, boolean collectedTreasure) {
+		return new PlayerState(player.getFirstName(), player.getLastName(), player.getStudentID(), playerGameState,
+				playerID, collectedTreasure);
 	}
 }
@@ -0,0 +1,7 @@
+package server.exceptions;
+
+public class HalfMapValidationException extends BaseServerException{
+	public HalfMapValidationException(String message) {
+		super("Name: Half Map Validation failed", message);
+	}
+}
@@ -0,0 +1,7 @@
+package server.exceptions;
+
+public class MoveException extends BaseServerException{
+	public MoveException(String message) {
+		super("Name: Move failed", message);
+	}
+}
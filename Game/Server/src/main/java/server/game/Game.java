@@ -2,46 +2,126 @@ package server.game;
 
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.slf4j.LoggerFactory;
 
 import MessagesBase.HalfMap;
+import MessagesBase.PlayerMove;
 import MessagesBase.UniquePlayerIdentifier;
 import MessagesGameState.EPlayerGameState;
 import MessagesGameState.FullMap;
-import server.convertors.MapConverter;
 import server.generators.GameStateIDGenerator;
+import server.storage.HalfMapIndex;
 
+/*
+ * Every method that changes the game is synchronized on the game itself, so two
+ * requests of the same game are never applied at the same time. At the end of
+ * every change a new immutable GameSnapshot is published through a volatile
+ * field, every getter reads from it, so state polls never wait for a change.
+ * Only a change of the board copies the board, a step that is still on the way
+ * to the next field shares the copy of the previous snapshot.
+ * Listeners are told about every published snapshot, this is how parked state
+ * requests are woken up.
+ */
 public class Game {
-
+	private static org.slf4j.Logger logger = LoggerFactory.getLogger(Game.class);
 
 	private String gameID;
 	private String gameStateID;
-	private Set<Player> players;
+	private final GameStateIDGenerator gameStateIDs = new GameStateIDGenerator();
+	private List<Player> players;
 	private ArrayList<HalfMap> halfMaps;
+	private long firstFingerprint;
 	private HashMap<UniquePlayerIdentifier, UniquePlayerIdentifier> fakePlayerIDs;
-	private HashMap<String, FullMap> fullMap;
+	private GameBoard board;
 	private boolean gameOver = false;
+	private volatile GameSnapshot snapshot;
+	private final List<Consumer<GameSnapshot>> listeners = new CopyOnWriteArrayList<>();
 
 	/**
 	 * Constructor for Game object, that stores the gameID, gameStateID, the
-	 * players, halfMaps, the fake ids for every player, the Map and whether the
-	 * game is over or not
+	 * players, halfMaps, the fake ids for every player, the board once both
+	 * halfMaps are sent and whether the game is over or not
 	 * 
 	 * @param gameID The UniqueGameIdentifier generated for this game
 	 */
 	public Game(String gameID) {
 		this.gameID = gameID;
-		this.players = new HashSet<>();
+		this.players = new ArrayList<>();
 		this.halfMaps = new ArrayList<>();
 		this.fakePlayerIDs = new HashMap<UniquePlayerIdentifier, UniquePlayerIdentifier>();
-		this.fullMap = new HashMap<String, FullMap>();
 		this.updateGameStateID();
+		this.publish();
 	}
 
 	private void updateGameStateID() {
-		GameStateIDGenerator generator = new GameStateIDGenerator();
-		this.gameStateID = generator.generate();
+		this.gameStateID = this.gameStateIDs.generate();
+	}
+
+	/**
+	 * Publishes a new snapshot of the current state, needs to be called at the end
+	 * of every change while holding the lock of the game.
+	 */
+	private void publish() {
+		this.publish(new GameSnapshot(gameStateID, gameOver, players, fakePlayerIDs, halfMaps,
+				board == null ? null : board.copy()));
+	}
+
+	/**
+	 * Publishes a new snapshot after a step that didn't change what is seen on the
+	 * board, only the gameStateID and the states of the players are new, the copy
+	 * of the board is shared with the previous snapshot.
+	 */
+	private void publishTurn() {
+		this.publish(this.snapshot.nextTurn(gameStateID, players));
+	}
+
+	private void publish(GameSnapshot snapshot) {
+		this.snapshot = snapshot;
+		for (Consumer<GameSnapshot> listener : this.listeners)
+			listener.accept(snapshot);
+	}
+
+	/**
+	 * Method that adds a listener that is called with every new snapshot of the
+	 * game. The listener is called while the game is locked, so it must not block.
+	 * 
+	 * @param listener Consumer that gets the new GameSnapshot
+	 */
+	public void addListener(Consumer<GameSnapshot> listener) {
+		this.listeners.add(listener);
+	}
+
+	/**
+	 * Method that removes a listener added with addListener
+	 * 
+	 * @param listener the listener that should no longer be called
+	 */
+	public void removeListener(Consumer<GameSnapshot> listener) {
+		this.listeners.remove(listener);
+	}
+
+	/**
+	 * Method to get the number of listeners waiting for a change of the game
+	 * 
+	 * @return number of registered listeners
+	 */
+	public int getListenerCount() {
+		return this.listeners.size();
+	}
+
+	/**
+	 * Method to get the last published snapshot of the game, all values in it
+	 * belong to the same gameStateID.
+	 * 
+	 * @return the current GameSnapshot
+	 */
+	public GameSnapshot getSnapshot() {
+		return snapshot;
 	}
 
 	/**
@@ -50,7 +130,7 @@ public class Game {
 	 * @return the gameStateID of the game
 	 */
 	public String getGameStateID() {
-		return gameStateID;
+		return snapshot.getGameStateID();
 	}
 
 	/**
@@ -63,12 +143,21 @@ public class Game {
 	}
 
 	/**
-	 * Method to get the Set of Players that registered for the game
+	 * Method to get whether the game is over or not
+	 * 
+	 * @return true if one of the players has lost the game
+	 */
+	public boolean isGameOver() {
+		return snapshot.isGameOver();
+	}
+
+	/**
+	 * Method to get the List of Players that registered for the game
 	 * 
-	 * @return the Set of Players registered for the game
+	 * @return the List of Players registered for the game
 	 */
-	public Set<Player> getPlayers() {
-		return players;
+	public List<Player> getPlayers() {
+		return snapshot.getPlayers();
 	}
 
 	/**
@@ -77,7 +166,7 @@ public class Game {
 	 * @return the FullMap
 	 */
 	public FullMap getFullMapForPlayer(String playerID) {
-		return fullMap.get(playerID);
+		return snapshot.getFullMapForPlayer(playerID);
 	}
 
 	/**
@@ -85,17 +174,17 @@ public class Game {
 	 * 
 	 * @return List of the generated HalfMaps
 	 */
-	public ArrayList<HalfMap> getHalfMaps() {
-		return halfMaps;
+	public List<HalfMap> getHalfMaps() {
+		return snapshot.getHalfMaps();
 	}
 
 	/**
-	 * Method to get the HashMap containing the fake player ids for each player
+	 * Method to get the Map containing the fake player ids for each player
 	 * 
-	 * @return HashMap containing the fake player ids
+	 * @return Map containing the fake player ids
 	 */
-	public HashMap<UniquePlayerIdentifier, UniquePlayerIdentifier> getFakeIDs() {
-		return fakePlayerIDs;
+	public Map<UniquePlayerIdentifier, UniquePlayerIdentifier> getFakeIDs() {
+		return snapshot.getFakeIDs();
 	}
 
 	/**
@@ -113,14 +202,15 @@ public class Game {
 	 * @throws Exception An Exception that holds in its message which business rule
 	 *                   is violated.
 	 */
-	public void addPlayer(Player player) throws Exception {
+	public synchronized void addPlayer(Player player) throws Exception {
 		if (this.gameOver)
 			throw new Exception("This game is already over!");
 
 		if (this.players.size() == 2)
 			throw new Exception("Too many players try to register!");
-		if (!this.players.add(player))
+		if (this.players.contains(player))
 			throw new Exception("Player already registered!");
+		this.players.add(player);
 
 		this.fakePlayerIDs.put(player.getPlayerID(), UniquePlayerIdentifier.random());
 		this.updateGameStateID();
@@ -145,6 +235,7 @@ public class Game {
 			}
 
 		}
+		this.publish();
 	}
 
 	/**
@@ -164,11 +255,9 @@ public class Game {
 	 * @throws Exception
 	 */
 	public Player getPlayerByID(String playerID) throws Exception {
-		for (Player p : this.players) {
-			if (p.getPlayerID().getUniquePlayerID().equals(playerID)) {
-				return p;
-			}
-		}
+		Player p = this.snapshot.getPlayer(playerID);
+		if (p != null)
+			return p;
 		throw new Exception("Player " + playerID + " isn't registered for this game!");
 	}
 
@@ -176,31 +265,42 @@ public class Game {
 	 * Method that adds a HalfMap to the List of HalfMaps. The method first checks
 	 * if the game is over or not. Then it uses the static method
 	 * MapValidator.verify class to check if the HalfMap violates any of the
-	 * business rules. If it catches an Exception it sets the state of the Player
-	 * that sent the map to Lost and the ones of his opponent to Won. After the
-	 * HalfMap is added to the List the gameStateID is updated via
-	 * updateGameSateID(). After the storing of the HalfMap the state of the Player
-	 * that generated the map is set to ShouldWait and the one of his opponent to
-	 * ShouldActNext. The last thing the method checks if the FullMap is already
-	 * generated or not and if there are 2 HalfMaps stored. If this condition is
-	 * fulfilled it calls the combineHalfMaps() method.
+	 * business rules and MapValidator.compareHalfMaps to check that it isn't too
+	 * similar to the HalfMap of the opponent. Every accepted HalfMap is added to
+	 * the HalfMapIndex, which reports maps already sent in other games. If it
+	 * catches an Exception it sets the state of the Player that sent the map to
+	 * Lost and the ones of his opponent to Won. After the HalfMap is added to the
+	 * List the gameStateID is updated via updateGameSateID(). After the storing of
+	 * the HalfMap the state of the Player that generated the map is set to
+	 * ShouldWait and the one of his opponent to ShouldActNext. The last thing the
+	 * method checks if the GameBoard is already created or not and if there are 2
+	 * HalfMaps stored. If this condition is fulfilled it calls the createBoard()
+	 * method.
 	 * 
 	 * @param newHalfMap The HalfMap that needs to be added to the game.
 	 * @throws Exception Exception showing that the game is over, or that a player
 	 *                   has lost and the reason for the loss.
 	 */
-	public void addHalfMap(HalfMap newHalfMap) throws Exception {
+	public synchronized void addHalfMap(HalfMap newHalfMap) throws Exception {
 		if (this.gameOver)
 			throw new Exception("This game is already over!");
+		long fingerprint = HalfMapFingerprint.of(newHalfMap);
 		try {
 			MapValidator.verify(newHalfMap, this);
+			if (this.halfMaps.size() == 1)
+				MapValidator.compareHalfMaps(this.firstFingerprint, fingerprint);
 		} catch (Exception e) {
 			this.lostGame(newHalfMap.getUniquePlayerID());
-			this.updateGameStateID();
 			System.out.println("You lost " + e.getMessage());
 			throw new Exception("You lost " + e.getMessage());
 		}
+		if (this.halfMaps.isEmpty())
+			this.firstFingerprint = fingerprint;
 		this.halfMaps.add(newHalfMap);
+		int closest = HalfMapIndex.getIndex().add(fingerprint);
+		if (HalfMapIndex.isNearDuplicate(closest))
+			logger.info("HalfMap of " + newHalfMap.getUniquePlayerID() + " differs from an earlier HalfMap in only "
+					+ closest + " fields");
 		this.updateGameStateID();
 		for (Player player : this.players) {
 			if (player.getPlayerID().getUniquePlayerID().equals(newHalfMap.getUniquePlayerID()))
@@ -208,24 +308,78 @@ public class Game {
 			else
 				player.setPlayerGameState(EPlayerGameState.ShouldActNext);
 		}
-		if (fullMap.isEmpty() && this.halfMaps.size() == 2) {
-			this.combineHalfMaps();
+		if (this.board == null && this.halfMaps.size() == 2) {
+			this.createBoard();
+		}
+		this.publish();
+	}
+
+	/**
+	 * This method combines the two halfMaps into the GameBoard, both players see
+	 * the same board.
+	 */
+	private void createBoard() {
+		this.board = new GameBoard(this.halfMapOf(this.players.get(0)), this.halfMapOf(this.players.get(1)));
+	}
+
+	private HalfMap halfMapOf(Player player) {
+		for (HalfMap halfMap : this.halfMaps) {
+			if (halfMap.getUniquePlayerID().equals(player.getPlayerID().getUniquePlayerID()))
+				return halfMap;
 		}
+		return null;
 	}
 
 	/**
-	 * This method combines the two halfMaps into a FullMap with the help of
-	 * MapConverter object and its combineHalfMaps method.
+	 * Method that processes a move of a player. The method first checks if the
+	 * game is over, if the board exists and if the player is allowed to act, if he
+	 * isn't he loses the game. The step is passed to the GameBoard, if it leads off
+	 * the board or into water the player loses, if he captures the enemy fortress
+	 * he wins. Otherwise the turn goes to his opponent and the gameStateID is
+	 * updated.
+	 * 
+	 * @param move PlayerMove sent by the player
+	 * @throws Exception Exception showing that the game is over, or that a player
+	 *                   has lost and the reason for the loss.
 	 */
-	private void combineHalfMaps() {
-		MapConverter converter = new MapConverter();
-		fullMap.put(halfMaps.get(0).getUniquePlayerID(),
-				converter.combineHalfMaps(halfMaps, halfMaps.get(0).getUniquePlayerID()));
-		fullMap.put(halfMaps.get(1).getUniquePlayerID(),
-				converter.combineHalfMaps(halfMaps, halfMaps.get(1).getUniquePlayerID()));
+	public synchronized void move(PlayerMove move) throws Exception {
+		if (this.gameOver)
+			throw new Exception("This game is already over!");
+		if (this.board == null)
+			throw new Exception("The map of this game isn't complete yet!");
+		String playerID = move.getUniquePlayerID();
+		int index = this.players.indexOf(this.getPlayerByID(playerID));
+		Player player = this.players.get(index);
+		if (player.getPlayerGameState() != EPlayerGameState.ShouldActNext) {
+			this.lostGame(playerID);
+			throw new Exception("Player tried to move, when he should wait! Culprit was: " + playerID);
+		}
+		int result = this.board.move(index, move.getMove());
+		if (result == GameBoard.LOST) {
+			this.lostGame(playerID);
+			throw new Exception("Player " + playerID + " moved into water or off the map!");
+		}
+		if (result == GameBoard.FORT_CAPTURED) {
+			this.lostGame(this.players.get(1 - index).getPlayerID().getUniquePlayerID());
+			return;
+		}
+		this.updateGameStateID();
+		player.setPlayerGameState(EPlayerGameState.ShouldWait);
+		this.players.get(1 - index).setPlayerGameState(EPlayerGameState.ShouldActNext);
+		// a step that doesn't reach the next field changes nothing on the board
+		if (result == GameBoard.MOVING)
+			this.publishTurn();
+		else
+			this.publish();
 	}
-	
-	public void lostGame(String playerID) {
+
+	/**
+	 * Method that ends the game, the player with the given ID loses and his
+	 * opponent wins.
+	 * 
+	 * @param playerID ID of the player that lost the game
+	 */
+	public synchronized void lostGame(String playerID) {
 		this.gameOver = true;
 		for(Player player : this.players) {
 			if (player.getPlayerID().getUniquePlayerID().equals(playerID))
@@ -233,6 +387,8 @@ public class Game {
 			else
 				player.setPlayerGameState(EPlayerGameState.Won);
 		}
+		this.updateGameStateID();
+		this.publish();
 	}
 	/**
 	 * Debug
@@ -0,0 +1,348 @@
+package server.game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import MessagesBase.EMove;
+import MessagesBase.ETerrain;
+import MessagesBase.HalfMap;
+import MessagesBase.HalfMapNode;
+import MessagesGameState.EFortState;
+import MessagesGameState.EPlayerPositionState;
+import MessagesGameState.ETreasureState;
+import MessagesGameState.FullMap;
+import MessagesGameState.FullMapNode;
+
+/*
+ * The board of a game after both HalfMaps have been combined. Every field is
+ * addressed by its index y * width + x and packed into a single byte: two bits
+ * for the terrain and one bit per player for his fortress, his treasure and his
+ * position. What a player has discovered or collected is kept in a few more
+ * bits, so a move only changes a few numbers. The board isn't thread safe, it
+ * is only changed while the game is locked, every snapshot of the game gets a
+ * copy of it and builds the FullMap of a player from it when it is needed. The
+ * FullMap masks what the player hasn't seen, the bits of the enemy fortress,
+ * the treasure and the enemy position are only shown once he has seen them.
+ */
+public class GameBoard {
+	// results of a move
+	public static final int MOVING = 0;
+	public static final int MOVED = 1;
+	public static final int TREASURE_COLLECTED = 2;
+	public static final int FORT_CAPTURED = 3;
+	public static final int LOST = 4;
+
+	private static final int GRASS = 0;
+	private static final int MOUNTAIN = 1;
+	private static final int WATER = 2;
+	private static final int TERRAIN = 0b11;
+	// shifted by the index of the player
+	private static final int FORT = 1 << 2;
+	private static final int TREASURE = 1 << 4;
+	private static final int PLAYER = 1 << 6;
+	// flags of a player, shifted by the index of the player
+	private static final int TREASURE_FOUND = 1;
+	private static final int TREASURE_TAKEN = 1 << 2;
+	private static final int ENEMY_FORT_FOUND = 1 << 4;
+	private static final int HALF_WIDTH = 8;
+	private static final int HALF_HEIGHT = 4;
+
+	private final int width;
+	private final int height;
+	private final byte[] cells;
+	private final int[] position;
+	private int flags;
+	// field a player is currently moving to and the steps he already sent
+	private final int[] target;
+	private final int[] steps;
+
+	/**
+	 * Constructor for GameBoard, it combines the HalfMaps of both players. The
+	 * board is either 8x8 or 16x4 and the order of the halves is random, as
+	 * before. Every player starts on his fortress and his treasure is hidden on a
+	 * random grass field of his own half.
+	 *
+	 * @param first  HalfMap of the first player of the game
+	 * @param second HalfMap of the second player of the game
+	 */
+	public GameBoard(HalfMap first, HalfMap second) {
+		this(first, second, new Random());
+	}
+
+	GameBoard(HalfMap first, HalfMap second, Random random) {
+		boolean wide = random.nextBoolean();
+		this.width = wide ? 2 * HALF_WIDTH : HALF_WIDTH;
+		this.height = wide ? HALF_HEIGHT : 2 * HALF_HEIGHT;
+		this.cells = new byte[width * height];
+		this.position = new int[2];
+		this.target = new int[] { -1, -1 };
+		this.steps = new int[2];
+		boolean swap = random.nextBoolean();
+		// the players keep their own HalfMap, only the halves are swapped
+		this.place(0, first, swap, wide, random);
+		this.place(1, second, !swap, wide, random);
+	}
+
+	private void place(int player, HalfMap halfMap, boolean secondHalf, boolean wide, Random random) {
+		int xModifier = secondHalf && wide ? HALF_WIDTH : 0;
+		int yModifier = secondHalf && !wide ? HALF_HEIGHT : 0;
+		int[] grass = new int[HALF_WIDTH * HALF_HEIGHT];
+		int grassCount = 0;
+		for (HalfMapNode node : halfMap.getNodes()) {
+			int index = (node.getY() + yModifier) * width + node.getX() + xModifier;
+			this.cells[index] = (byte) toCode(node.getTerrain());
+			if (node.isFortPresent()) {
+				this.cells[index] |= (FORT | PLAYER) << player;
+				this.position[player] = index;
+			} else if (node.getTerrain() == ETerrain.Grass)
+				grass[grassCount++] = index;
+		}
+		this.cells[grass[random.nextInt(grassCount)]] |= TREASURE << player;
+	}
+
+	/**
+	 * Copy constructor, used to give every snapshot of the game its own board.
+	 */
+	private GameBoard(GameBoard board) {
+		this.width = board.width;
+		this.height = board.height;
+		this.cells = board.cells.clone();
+		this.position = board.position.clone();
+		this.flags = board.flags;
+		this.target = board.target.clone();
+		this.steps = board.steps.clone();
+	}
+
+	/**
+	 * Method that copies the board, the copy isn't changed by later moves
+	 *
+	 * @return copy of the board
+	 */
+	public GameBoard copy() {
+		return new GameBoard(this);
+	}
+
+	private static int toCode(ETerrain terrain) {
+		switch (terrain) {
+		case Mountain:
+			return MOUNTAIN;
+		case Water:
+			return WATER;
+		default:
+			return GRASS;
+		}
+	}
+
+	private static ETerrain toTerrain(int code) {
+		switch (code) {
+		case MOUNTAIN:
+			return ETerrain.Mountain;
+		case WATER:
+			return ETerrain.Water;
+		default:
+			return ETerrain.Grass;
+		}
+	}
+
+	/**
+	 * Steps needed to leave a field, the same the client assumes: two for
+	 * mountains, one for grass.
+	 */
+	private int requiredToLeave(int index) {
+		return this.terrainOf(index) == MOUNTAIN ? 2 : 1;
+	}
+
+	/**
+	 * Steps needed to enter a field, the same the client assumes: two for
+	 * mountains, one for grass.
+	 */
+	private int requiredToEnter(int index) {
+		return this.terrainOf(index) == MOUNTAIN ? 2 : 1;
+	}
+
+	private int terrainOf(int index) {
+		return this.cells[index] & TERRAIN;
+	}
+
+	private boolean has(int index, int bit, int player) {
+		return (this.cells[index] & (bit << player)) != 0;
+	}
+
+	private boolean hasFlag(int flag, int player) {
+		return (this.flags & (flag << player)) != 0;
+	}
+
+	/**
+	 * Method that processes one step of a player. A player only reaches the next
+	 * field after sending as many steps in its direction as leaving his field and
+	 * entering the next one takes, changing the direction starts over. If the step
+	 * leads off the board or into water the player loses. Reaching his treasure
+	 * collects it, reaching the enemy fortress with the treasure captures it.
+	 *
+	 * @param player    index of the player in the game
+	 * @param direction direction of the step
+	 * @return MOVING, MOVED, TREASURE_COLLECTED, FORT_CAPTURED or LOST
+	 */
+	public int move(int player, EMove direction) {
+		int from = this.position[player];
+		int x = from % this.width;
+		int y = from / this.width;
+		switch (direction) {
+		case Up:
+			y--;
+			break;
+		case Down:
+			y++;
+			break;
+		case Left:
+			x--;
+			break;
+		default:
+			x++;
+		}
+		if (x < 0 || y < 0 || x >= this.width || y >= this.height)
+			return LOST;
+		int next = y * this.width + x;
+		if (this.terrainOf(next) == WATER)
+			return LOST;
+		if (this.target[player] != next) {
+			this.target[player] = next;
+			this.steps[player] = 0;
+		}
+		if (++this.steps[player] < this.requiredToLeave(from) + this.requiredToEnter(next))
+			return MOVING;
+		this.target[player] = -1;
+		this.steps[player] = 0;
+		this.cells[from] &= ~(PLAYER << player);
+		this.cells[next] |= PLAYER << player;
+		this.position[player] = next;
+		this.reveal(player, next);
+		if (this.has(next, TREASURE, player) && !this.hasFlag(TREASURE_TAKEN, player)) {
+			this.flags |= TREASURE_TAKEN << player;
+			return TREASURE_COLLECTED;
+		}
+		if (this.has(next, FORT, 1 - player) && this.hasFlag(TREASURE_TAKEN, player))
+			return FORT_CAPTURED;
+		return MOVED;
+	}
+
+	/**
+	 * How far a player sees from a field, from a mountain the player sees all
+	 * fields around him, otherwise only the field he stands on.
+	 */
+	private int rangeOf(int index) {
+		return this.terrainOf(index) == MOUNTAIN ? 1 : 0;
+	}
+
+	/**
+	 * Whether a field is within the range the player sees from where he stands
+	 */
+	private boolean sees(int player, int index) {
+		int from = this.position[player];
+		int range = this.rangeOf(from);
+		return Math.abs(from % this.width - index % this.width) <= range
+				&& Math.abs(from / this.width - index / this.width) <= range;
+	}
+
+	/**
+	 * Discovers the treasure and the enemy fortress if the player can see them
+	 */
+	private void reveal(int player, int index) {
+		int range = this.rangeOf(index);
+		int x = index % this.width;
+		int y = index / this.width;
+		for (int seenY = Math.max(0, y - range); seenY <= Math.min(this.height - 1, y + range); seenY++) {
+			for (int seenX = Math.max(0, x - range); seenX <= Math.min(this.width - 1, x + range); seenX++) {
+				int seen = seenY * this.width + seenX;
+				if (this.has(seen, TREASURE, player))
+					this.flags |= TREASURE_FOUND << player;
+				if (this.has(seen, FORT, 1 - player))
+					this.flags |= ENEMY_FORT_FOUND << player;
+			}
+		}
+	}
+
+	/**
+	 * Method that builds the FullMap a player sees. The enemy fortress and the
+	 * treasure only show up after the player has discovered them, the treasure
+	 * disappears once it is collected. The enemy starts on his fortress, so he is
+	 * only shown while the player sees the field he stands on.
+	 *
+	 * @param player index of the player in the game
+	 * @return FullMap for the player
+	 */
+	public FullMap toFullMap(int player) {
+		int enemy = 1 - player;
+		boolean showTreasure = this.hasFlag(TREASURE_FOUND, player) && !this.hasFlag(TREASURE_TAKEN, player);
+		boolean showEnemyFort = this.hasFlag(ENEMY_FORT_FOUND, player);
+		boolean showEnemy = this.sees(player, this.position[enemy]);
+		List<FullMapNode> nodes = new ArrayList<>(this.cells.length);
+		for (int index = 0; index < this.cells.length; index++) {
+			EPlayerPositionState positionState = EPlayerPositionState.NoPlayerPresent;
+			if (this.has(index, PLAYER, player) && this.has(index, PLAYER, enemy))
+				positionState = EPlayerPositionState.BothPlayerPosition;
+			else if (this.has(index, PLAYER, player))
+				positionState = EPlayerPositionState.MyPosition;
+			else if (showEnemy && this.has(index, PLAYER, enemy))
+				positionState = EPlayerPositionState.EnemyPlayerPosition;
+			ETreasureState treasureState = ETreasureState.NoOrUnknownTreasureState;
+			if (showTreasure && this.has(index, TREASURE, player))
+				treasureState = ETreasureState.MyTreasureIsPresent;
+			EFortState fortState = EFortState.NoOrUnknownFortState;
+			if (this.has(index, FORT, player))
+				fortState = EFortState.MyFortPresent;
+			else if (showEnemyFort && this.has(index, FORT, enemy))
+				fortState = EFortState.EnemyFortPresent;
+			nodes.add(new FullMapNode(toTerrain(this.terrainOf(index)), positionState, treasureState, fortState,
+					index % this.width, index / this.width));
+		}
+		return new FullMap(nodes);
+	}
+
+	/**
+	 * @param player index of the player in the game
+	 * @return whether the player has collected his treasure
+	 */
+	public boolean hasCollectedTreasure(int player) {
+		return this.hasFlag(TREASURE_TAKEN, player);
+	}
+
+	/**
+	 * @param player index of the player in the game
+	 * @return index of the field the player stands on
+	 */
+	public int getPosition(int player) {
+		return this.position[player];
+	}
+
+	int getTreasure(int player) {
+		return this.find(TREASURE, player);
+	}
+
+	int getFort(int player) {
+		return this.find(FORT, player);
+	}
+
+	private int find(int bit, int player) {
+		for (int index = 0; index < this.cells.length; index++) {
+			if (this.has(index, bit, player))
+				return index;
+		}
+		return -1;
+	}
+
+	/**
+	 * @return width of the board, 8 or 16
+	 */
+	public int getWidth() {
+		return this.width;
+	}
+
+	/**
+	 * @return height of the board, 8 or 4
+	 */
+	public int getHeight() {
+		return this.height;
+	}
+}
@@ -0,0 +1,230 @@
+package server.game;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+import MessagesBase.HalfMap;
+import MessagesBase.UniquePlayerIdentifier;
+import MessagesGameState.EPlayerGameState;
+import MessagesGameState.FullMap;
+import MessagesGameState.GameState;
+
+public class GameSnapshot {
+	private final String gameStateID;
+	private final boolean gameOver;
+	private final List<Player> players;
+	private final EPlayerGameState[] playerGameStates;
+	private final Map<UniquePlayerIdentifier, UniquePlayerIdentifier> fakePlayerIDs;
+	private final List<HalfMap> halfMaps;
+	private final GameBoard board;
+	private final AtomicReferenceArray<FullMap> fullMaps;
+	private final AtomicReferenceArray<GameState> gameStates;
+	private final AtomicReferenceArray<byte[]> serializedGameStates;
+
+	/**
+	 * Constructor for GameSnapshot, an immutable copy of the state of a Game at
+	 * the moment it is created. The state of every Player is copied as well, so a
+	 * snapshot never shows a half finished change of the game. A new snapshot is
+	 * published by the Game after every change, so it can be read without
+	 * locking.
+	 * 
+	 * @param gameStateID   gameStateID of the game
+	 * @param gameOver      whether the game is over or not
+	 * @param players       the registered Players
+	 * @param fakePlayerIDs the fake ids for every player
+	 * @param halfMaps      the HalfMaps sent by the players
+	 * @param board         copy of the GameBoard, null if it isn't created yet
+	 */
+	GameSnapshot(String gameStateID, boolean gameOver, List<Player> players,
+			Map<UniquePlayerIdentifier, UniquePlayerIdentifier> fakePlayerIDs, List<HalfMap> halfMaps,
+			GameBoard board) {
+		this.gameStateID = gameStateID;
+		this.gameOver = gameOver;
+		this.players = Collections.unmodifiableList(new ArrayList<>(players));
+		this.playerGameStates = new EPlayerGameState[players.size()];
+		for (int i = 0; i < players.size(); i++)
+			this.playerGameStates[i] = players.get(i).getPlayerGameState();
+		this.fakePlayerIDs = Collections.unmodifiableMap(new HashMap<>(fakePlayerIDs));
+		this.halfMaps = Collections.unmodifiableList(new ArrayList<>(halfMaps));
+		this.board = board;
+		this.fullMaps = new AtomicReferenceArray<>(players.size());
+		this.gameStates = new AtomicReferenceArray<>(players.size());
+		this.serializedGameStates = new AtomicReferenceArray<>(players.size());
+	}
+
+	/**
+	 * Constructor for the GameSnapshot of the next turn, only the gameStateID and
+	 * the states of the players are new. The players, the fake ids, the HalfMaps
+	 * and the copy of the board are shared with the previous snapshot, none of
+	 * them is ever changed.
+	 * 
+	 * @param previous    the snapshot published before
+	 * @param gameStateID gameStateID of the game
+	 * @param players     the registered Players, the same as in previous
+	 */
+	private GameSnapshot(GameSnapshot previous, String gameStateID, List<Player> players) {
+		this.gameStateID = gameStateID;
+		this.gameOver = previous.gameOver;
+		this.players = previous.players;
+		this.playerGameStates = new EPlayerGameState[players.size()];
+		for (int i = 0; i < players.size(); i++)
+			this.playerGameStates[i] = players.get(i).getPlayerGameState();
+		this.fakePlayerIDs = previous.fakePlayerIDs;
+		this.halfMaps = previous.halfMaps;
+		this.board = previous.board;
+		this.fullMaps = new AtomicReferenceArray<>(players.size());
+		this.gameStates = new AtomicReferenceArray<>(players.size());
+		this.serializedGameStates = new AtomicReferenceArray<>(players.size());
+	}
+
+	/**
+	 * Method that creates the snapshot after a turn that didn't change anything on
+	 * the board, without copying the board again.
+	 * 
+	 * @param gameStateID new gameStateID of the game
+	 * @param players     the registered Players with their new states
+	 * @return the GameSnapshot of the next turn
+	 */
+	GameSnapshot nextTurn(String gameStateID, List<Player> players) {
+		return new GameSnapshot(this, gameStateID, players);
+	}
+
+	/**
+	 * @return the copy of the GameBoard in this snapshot, null if it isn't created
+	 *         yet
+	 */
+	GameBoard getBoard() {
+		return this.board;
+	}
+
+	/**
+	 * @return the gameStateID of the snapshot
+	 */
+	public String getGameStateID() {
+		return gameStateID;
+	}
+
+	/**
+	 * @return whether the game was over when the snapshot was taken
+	 */
+	public boolean isGameOver() {
+		return gameOver;
+	}
+
+	/**
+	 * @return the Players registered for the game
+	 */
+	public List<Player> getPlayers() {
+		return players;
+	}
+
+	/**
+	 * Method to get whether a Player had collected his treasure when the snapshot
+	 * was taken
+	 * 
+	 * @param player Player registered for the game
+	 * @return true if the player has collected his treasure
+	 */
+	public boolean hasCollectedTreasure(Player player) {
+		int index = players.indexOf(player);
+		return index >= 0 && board != null && board.hasCollectedTreasure(index);
+	}
+
+	/**
+	 * Method to get the state a Player had when the snapshot was taken
+	 * 
+	 * @param player Player registered for the game
+	 * @return EPlayerGameState of the player, null if the player isn't registered
+	 */
+	public EPlayerGameState getPlayerGameState(Player player) {
+		int index = players.indexOf(player);
+		return index < 0 ? null : playerGameStates[index];
+	}
+
+	/**
+	 * Method that returns the registered Player with the given ID
+	 * 
+	 * @param playerID playerID of the player we are looking for
+	 * @return Player with the given ID, null if there isn't one
+	 */
+	public Player getPlayer(String playerID) {
+		for (Player player : players) {
+			if (player.getPlayerID().getUniquePlayerID().equals(playerID))
+				return player;
+		}
+		return null;
+	}
+
+	/**
+	 * Method that returns the GameState a Player sees in this snapshot. The
+	 * GameState is built only on the first request of the player and then reused
+	 * until the game changes and a new snapshot is published. If two requests
+	 * build it at the same time, both get the one that was stored first.
+	 * 
+	 * @param player  Player that requests the GameState
+	 * @param builder builds the GameState if it isn't cached yet
+	 * @return GameState of the player, null if the player isn't registered
+	 */
+	public GameState getGameState(Player player, Function<Player, GameState> builder) {
+		return cached(gameStates, player, builder);
+	}
+
+	/**
+	 * Method that returns the serialized response with the GameState a Player
+	 * sees in this snapshot, cached the same way as the GameState itself.
+	 * 
+	 * @param player     Player that requests the GameState
+	 * @param serializer serializes the response if it isn't cached yet
+	 * @return the serialized response, null if the player isn't registered
+	 */
+	public byte[] getSerializedGameState(Player player, Function<Player, byte[]> serializer) {
+		return cached(serializedGameStates, player, serializer);
+	}
+
+	private <T> T cached(AtomicReferenceArray<T> cache, Player player, Function<Player, T> builder) {
+		int index = players.indexOf(player);
+		if (index < 0)
+			return null;
+		T cached = cache.get(index);
+		if (cached != null)
+			return cached;
+		T built = builder.apply(player);
+		if (cache.compareAndSet(index, null, built))
+			return built;
+		return cache.get(index);
+	}
+
+	/**
+	 * @return the fake ids for every player
+	 */
+	public Map<UniquePlayerIdentifier, UniquePlayerIdentifier> getFakeIDs() {
+		return fakePlayerIDs;
+	}
+
+	/**
+	 * @return the HalfMaps sent by the players
+	 */
+	public List<HalfMap> getHalfMaps() {
+		return halfMaps;
+	}
+
+	/**
+	 * Method that returns the FullMap a player sees in this snapshot. It is only
+	 * built from the board on the first request of the player and cached the same
+	 * way as the GameState.
+	 * 
+	 * @param playerID ID of the player
+	 * @return the FullMap of the player, null if it isn't generated yet
+	 */
+	public FullMap getFullMapForPlayer(String playerID) {
+		Player player = getPlayer(playerID);
+		if (board == null || player == null)
+			return null;
+		return cached(fullMaps, player, p -> board.toFullMap(players.indexOf(p)));
+	}
+}
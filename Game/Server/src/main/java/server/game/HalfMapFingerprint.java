@@ -0,0 +1,62 @@
+package server.game;
+
+import MessagesBase.HalfMap;
+import MessagesBase.HalfMapNode;
+
+/*
+ * The terrain of a HalfMap encoded in a single long, two bits per field, the
+ * field x,y uses the bits starting at 2 * (y * 8 + x). Two fingerprints are
+ * compared by XOR, every field with a different terrain leaves at least one
+ * bit set in its pair, so the number of different fields is a popcount and
+ * doesn't depend on the order in which the nodes were sent.
+ */
+public class HalfMapFingerprint {
+	private static final int WIDTH = 8;
+	private static final int HEIGHT = 4;
+	private static final long LOW_BITS = 0x5555555555555555L;
+
+	private HalfMapFingerprint() {
+	}
+
+	/**
+	 * Method that encodes the terrain of a HalfMap, nodes outside of the 8x4 map
+	 * are ignored as validation rejects them anyway.
+	 * 
+	 * @param halfMap HalfMap that needs to be encoded
+	 * @return fingerprint of the HalfMap
+	 */
+	public static long of(HalfMap halfMap) {
+		long fingerprint = 0;
+		for (HalfMapNode node : halfMap.getNodes()) {
+			int x = node.getX();
+			int y = node.getY();
+			if (x < 0 || x >= WIDTH || y < 0 || y >= HEIGHT)
+				continue;
+			long code;
+			switch (node.getTerrain()) {
+			case Mountain:
+				code = 1;
+				break;
+			case Water:
+				code = 2;
+				break;
+			default:
+				code = 0;
+			}
+			fingerprint |= code << (2 * (y * WIDTH + x));
+		}
+		return fingerprint;
+	}
+
+	/**
+	 * Method that counts the fields whose terrain differs between two HalfMaps
+	 * 
+	 * @param lhs fingerprint of the first HalfMap
+	 * @param rhs fingerprint of the second HalfMap
+	 * @return number of fields with different terrain, between 0 and 32
+	 */
+	public static int differences(long lhs, long rhs) {
+		long diff = lhs ^ rhs;
+		return Long.bitCount((diff | diff >>> 1) & LOW_BITS);
+	}
+}
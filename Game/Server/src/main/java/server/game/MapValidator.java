@@ -1,6 +1,13 @@
 package server.game;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.stream.IntStream;
 
 import MessagesBase.ETerrain;
 import MessagesBase.HalfMap;
@@ -8,61 +15,274 @@ import MessagesBase.HalfMapNode;
 import MessagesGameState.EPlayerGameState;
 
 public class MapValidator {
+	// size of a HalfMap
+	private static final int WIDTH = 8;
+	private static final int HEIGHT = 4;
+	// can be overridden on start, e.g. -Dgame.halfmap.minDifferences=8
+	private static final int MIN_DIFFERENCES = Integer.getInteger("game.halfmap.minDifferences", 5);
+	private static final ForkJoinPool validationPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+	// scratch space of the island check, every thread reuses its own
+	private static final ThreadLocal<FloodFill> floodFill = ThreadLocal.withInitial(FloodFill::new);
 
-	public static void compareHalfMaps(HalfMap lhs, HalfMap rhs) throws Exception {
-		int numberOfMatches = 0;
-		
-		ArrayList<HalfMapNode> lhsNodes = new ArrayList<>(lhs.getNodes());
-		ArrayList<HalfMapNode> rhsNodes = new ArrayList<>(rhs.getNodes());
-		
-		for(int i = 0; i < 32; i++) {
-			if(lhsNodes.get(i).equals(rhsNodes.get(i)))
-					numberOfMatches++;
-		}
-		
-		if(numberOfMatches > 10)
-			throw new Exception("The two HalfMaps are too similiar!");
+	/**
+	 * Method that checks if two HalfMaps are too similar, they have to differ in
+	 * the terrain of at least MIN_DIFFERENCES fields. The fields are compared by
+	 * their coordinates through the fingerprints of the maps.
+	 * 
+	 * @param lhs fingerprint of the HalfMap that was sent first
+	 * @param rhs fingerprint of the new HalfMap
+	 * @throws Exception thrown if the HalfMaps are too similar
+	 */
+	public static void compareHalfMaps(long lhs, long rhs) throws Exception {
+		int differences = HalfMapFingerprint.differences(lhs, rhs);
+		if (differences < MIN_DIFFERENCES)
+			throw new Exception("The two HalfMaps are too similiar! Only " + differences + " fields differ, at least "
+					+ MIN_DIFFERENCES + " have to");
 	}
 
-	
-
+	/**
+	 * Method that checks if a HalfMap may be added to a game, first the sender is
+	 * checked and then the map itself with validate. If the map breaks any rule,
+	 * all violations are put into the message of the exception, one per line.
+	 * 
+	 * @param halfMap HalfMap that was sent
+	 * @param game    Game the HalfMap was sent to
+	 * @throws Exception thrown if the sender isn't allowed to send the HalfMap or
+	 *                   the HalfMap is invalid
+	 */
 	public static void verify(HalfMap halfMap, Game game) throws Exception {
-		ArrayList<HalfMapNode> nodes = new ArrayList<>(halfMap.getNodes());
-		try {
-			senderCheck(halfMap, game);
-			checkSize(nodes);
-			checkBorders(nodes);
-			checkQuantities(nodes);
-		} catch (Exception e) {
-			throw e;
-		}
-		MapNode[][] temp = new MapNode[8][4];
-		for (HalfMapNode node : halfMap.getNodes()) {
-			temp[node.getX()][node.getY()] = new MapNode(node);
+		senderCheck(halfMap, game);
+		List<MapViolation> violations = validate(halfMap);
+		if (!violations.isEmpty()) {
+			StringBuilder message = new StringBuilder();
+			for (MapViolation violation : violations) {
+				if (message.length() > 0)
+					message.append('\n');
+				message.append(violation.getMessage());
+			}
+			throw new Exception(message.toString());
 		}
-		traverse(temp, 0, 0);
-		for(int x = 0; x < 7; x++) {
-			for(int y = 0; y < 4; y++) {
-				if(!temp[x][y].getTraversed() && temp[x][y].getNode().getTerrain() != ETerrain.Water)
-					throw new Exception("The halfMap has islands inside it!");
+	}
+
+	/**
+	 * Method that checks a HalfMap against all business rules of a map. The size,
+	 * the terrain counts, the water on the borders, the fortress and where the
+	 * nodes are placed are all gathered in one pass over the nodes, the island
+	 * check then runs on the grid filled in the same pass.
+	 * 
+	 * @param halfMap HalfMap that needs to be checked
+	 * @return every rule the HalfMap breaks, empty if it is valid
+	 */
+	public static List<MapViolation> validate(HalfMap halfMap) {
+		return validate(halfMap, WIDTH, HEIGHT);
+	}
+
+	/**
+	 * Method that checks a map of any size against the business rules of a map,
+	 * the same way validate(halfMap) checks a HalfMap, the borders are the ones of
+	 * the given size and the bits of the grid grow with it.
+	 * 
+	 * @param halfMap HalfMap that needs to be checked
+	 * @param width   number of fields in a row
+	 * @param height  number of rows
+	 * @return every rule the map breaks, empty if it is valid
+	 */
+	public static List<MapViolation> validate(HalfMap halfMap, int width, int height) {
+		List<MapViolation> violations = new ArrayList<>();
+		Collection<HalfMapNode> nodes = halfMap.getNodes();
+		int fields = width * height;
+		FloodFill fill = floodFill.get();
+		long[] land = fill.clear(fields);
+		long[] placed = fill.placed();
+		int mountainCount = 0;
+		int waterCount = 0;
+		int grassCount = 0;
+		int widthBorderWater = 0;
+		int heightBorderWater = 0;
+		int fortressCount = 0;
+		boolean fortressOnGrass = true;
+		boolean placementValid = true;
+
+		for (HalfMapNode node : nodes) {
+			int x = node.getX();
+			int y = node.getY();
+			ETerrain terrain = node.getTerrain();
+			switch (terrain) {
+			case Water:
+				waterCount++;
+				if (y == 0 || y == height - 1)
+					widthBorderWater++;
+				if (x == 0 || x == width - 1)
+					heightBorderWater++;
+				break;
+			case Grass:
+				grassCount++;
+				break;
+			case Mountain:
+				mountainCount++;
+				break;
+			}
+			if (node.isFortPresent()) {
+				fortressCount++;
+				if (terrain != ETerrain.Grass)
+					fortressOnGrass = false;
+			}
+			if (x < 0 || x >= width || y < 0 || y >= height) {
+				placementValid = false;
+				violations.add(new MapViolation(MapViolation.Rule.Placement,
+						"Node " + x + "," + y + " is outside of the " + width + "x" + height + " map"));
+				continue;
 			}
+			int index = y * width + x;
+			if ((placed[index >>> 6] & 1L << index) != 0) {
+				placementValid = false;
+				violations.add(new MapViolation(MapViolation.Rule.Placement, "Node " + x + "," + y + " is sent twice"));
+			}
+			placed[index >>> 6] |= 1L << index;
+			if (terrain != ETerrain.Water)
+				land[index >>> 6] |= 1L << index;
 		}
+
+		if (nodes.size() != fields)
+			violations.add(new MapViolation(MapViolation.Rule.Size,
+					"Map size is invalid! Current size :" + nodes.size() + ", desired size is " + fields));
+		if (fortressCount == 0)
+			violations.add(new MapViolation(MapViolation.Rule.Fortress, "Fortress is not present"));
+		else if (fortressCount > 1)
+			violations.add(new MapViolation(MapViolation.Rule.Fortress,
+					"There are " + fortressCount + " fortresses, only one is allowed"));
+		if (!fortressOnGrass)
+			violations.add(new MapViolation(MapViolation.Rule.Fortress, "Fortress has to be placed on grass"));
+		if (widthBorderWater > 3)
+			violations.add(new MapViolation(MapViolation.Rule.Border,
+					"Water field on the width of the border is " + widthBorderWater + " the maximal count is 3"));
+		if (heightBorderWater > 1)
+			violations.add(new MapViolation(MapViolation.Rule.Border,
+					"Water field on the height of the border is " + heightBorderWater + " the maximal count is 1"));
+		if (mountainCount < 3)
+			violations.add(new MapViolation(MapViolation.Rule.Quantity,
+					"Mountain Count insufficent, given are " + mountainCount + " with 3 desired"));
+		if (waterCount < 4)
+			violations.add(new MapViolation(MapViolation.Rule.Quantity,
+					"Water Count insufficent, given are " + waterCount + " with 4 desired"));
+		if (grassCount < 15)
+			violations.add(new MapViolation(MapViolation.Rule.Quantity,
+					"Grass Count insufficent, given are " + grassCount + " with 15 desired"));
+		// islands can only be found on a complete grid
+		if (placementValid && nodes.size() == fields && !fill.isConnected(width, height))
+			violations.add(new MapViolation(MapViolation.Rule.Islands, "The halfMap has islands inside it!"));
+		return violations;
 	}
 
-	private static void traverse(MapNode[][] map, int x, int y) {
-		if (x < 0 || x > 7 || y < 0 || y > 3)
-			return;
-		if (map[x][y].getNode().getTerrain() == ETerrain.Water || map[x][y].getTraversed() == true)
-			return;
-		map[x][y].setTraversed(true);
+	/**
+	 * Method that validates many HalfMaps at once, spread over all cores. Only the
+	 * rules of the map itself are checked, the same way validate checks them when
+	 * a HalfMap is sent to a game. Every verdict is passed on as soon as it is
+	 * ready, so they don't arrive in the order of the list and the consumer has
+	 * to be thread safe.
+	 * 
+	 * @param halfMaps HalfMaps that need to be checked
+	 * @param verdicts called with the position of every HalfMap in the list and
+	 *                 the rules it breaks
+	 * @return future that completes once every HalfMap has been checked
+	 */
+	public static CompletableFuture<Void> validateAll(List<HalfMap> halfMaps,
+			BiConsumer<Integer, List<MapViolation>> verdicts) {
+		return CompletableFuture.runAsync(() -> IntStream.range(0, halfMaps.size()).parallel()
+				.forEach(index -> verdicts.accept(index, validate(halfMaps.get(index)))), validationPool);
+	}
 
-		traverse(map, x, y + 1);
-		traverse(map, x, y - 1);
-		traverse(map, x - 1, y);
-		traverse(map, x + 1, y);
+	/*
+	 * Flood fill over a grid of width * height fields, the field x,y has the index
+	 * y * width + x. The fields that aren't water and the fields that were reached
+	 * are kept as bits, the fields still to visit in an int array used as queue, so
+	 * no objects are created and nothing is recursive.
+	 */
+	static final class FloodFill {
+		private long[] land = new long[1];
+		private long[] visited = new long[1];
+		private long[] placed = new long[1];
+		private int[] queue = new int[32];
+		private int words;
 
+		/**
+		 * Prepares the grid for the given number of fields, all fields are water
+		 * and none is placed afterwards, (fields + 63) / 64 words are used.
+		 * 
+		 * @param fields number of fields of the grid
+		 * @return the bits of the fields that aren't water, to be filled in
+		 */
+		long[] clear(int fields) {
+			this.words = (fields + 63) >>> 6;
+			if (this.land.length < this.words) {
+				this.land = new long[this.words];
+				this.visited = new long[this.words];
+				this.placed = new long[this.words];
+			}
+			if (this.queue.length < fields)
+				this.queue = new int[fields];
+			Arrays.fill(this.land, 0, this.words, 0L);
+			Arrays.fill(this.visited, 0, this.words, 0L);
+			Arrays.fill(this.placed, 0, this.words, 0L);
+			return this.land;
+		}
+
+		/**
+		 * @return the bits of the fields that have been placed, cleared with the
+		 *         grid
+		 */
+		long[] placed() {
+			return this.placed;
+		}
+
+		/**
+		 * Checks if all fields that aren't water are connected, starting from the
+		 * first of them and going up, down, left and right.
+		 * 
+		 * @param width  width of the grid
+		 * @param height height of the grid
+		 * @return true if there are no islands
+		 */
+		boolean isConnected(int width, int height) {
+			int landCount = 0;
+			int start = -1;
+			for (int word = 0; word < this.words; word++) {
+				if (start < 0 && this.land[word] != 0)
+					start = (word << 6) + Long.numberOfTrailingZeros(this.land[word]);
+				landCount += Long.bitCount(this.land[word]);
+			}
+			if (landCount == 0)
+				return true;
+			int head = 0;
+			int tail = 0;
+			this.queue[tail++] = start;
+			this.visited[start >>> 6] |= 1L << start;
+			while (head < tail) {
+				int field = this.queue[head++];
+				int x = field % width;
+				if (x > 0)
+					tail = this.visit(field - 1, tail);
+				if (x < width - 1)
+					tail = this.visit(field + 1, tail);
+				if (field >= width)
+					tail = this.visit(field - width, tail);
+				if (field < (height - 1) * width)
+					tail = this.visit(field + width, tail);
+			}
+			return tail == landCount;
+		}
+
+		private int visit(int field, int tail) {
+			long bit = 1L << field;
+			int word = field >>> 6;
+			if ((this.land[word] & bit) == 0 || (this.visited[word] & bit) != 0)
+				return tail;
+			this.visited[word] |= bit;
+			this.queue[tail] = field;
+			return tail + 1;
+		}
 	}
-	
+
 	private static void senderCheck(HalfMap halfMap, Game game) throws Exception {
 		int numberMissmatches = 0;
 		if(game.getPlayers().size() != 2) {
@@ -89,90 +309,4 @@ public class MapValidator {
 		if(numberMissmatches == 2)
 			throw new Exception("Player " + halfMap.getUniquePlayerID() + " isn't registered for this game");
 	}
-	private static void checkSize(ArrayList<HalfMapNode> nodes) throws Exception {
-		if (nodes.size() != 32) {
-			throw new Exception("Map size is invalid! Current size :" + nodes.size() + ", desired size is 32");
-		}
-	}
-
-	private static void checkQuantities(ArrayList<HalfMapNode> nodes) throws Exception {
-		int mountainCount = 0;
-		int waterCount = 0;
-		int grassCount = 0;
-		String errorMessage = null;
-		for (HalfMapNode node : nodes) {
-			switch (node.getTerrain()) {
-			case Water:
-				waterCount++;
-				break;
-			case Grass:
-				grassCount++;
-				break;
-			case Mountain:
-				mountainCount++;
-				break;
-			}
-		}
-		if (mountainCount < 3) {
-			if(errorMessage == null) {
-				errorMessage = "Mountain Count insufficent, given are " + mountainCount + " with 3 desired";
-			}
-		}
-		
-
-		if (waterCount < 4) {
-			if(errorMessage == null) {
-				errorMessage = "Water Count insufficent, given are " + waterCount + " with 4 desired";
-			}
-			else
-				errorMessage.concat("\n Water Count insufficent, given are " + waterCount + " with 4 desired");
-		}
-
-		if (grassCount < 15) {
-			if(errorMessage == null) {
-				errorMessage = "Grass Count insufficent, given are " + mountainCount + " with 15 desired";
-			}
-			else
-				errorMessage.concat("\n Grass Count insufficent, given are " + mountainCount + " with 15 desired");
-		}
-		
-		if (errorMessage != null) 
-			throw new Exception(errorMessage);
-		
-	}
-
-	private static void checkBorders(ArrayList<HalfMapNode> nodes) throws Exception {
-		int widthBorderWater = 0;
-		int heightBorderWater = 0;
-		String errorMessage = "";
-		Boolean fortressPresent = false;
-
-		for (HalfMapNode node : nodes) {
-
-			if (node.isFortPresent())
-				fortressPresent = true;
-
-			int y = node.getY();
-			int x = node.getX();
-			if (y == 0 || y == 3 || x == 0 || x == 7) {
-				if (node.getTerrain().equals(ETerrain.Water)) {
-					if (y == 0 || y == 3)
-						widthBorderWater++;
-					if (x == 0 || x == 7)
-						heightBorderWater++;
-				}
-			}
-		}
-		if (!fortressPresent)
-			errorMessage.concat("\n Fortress is not present");
-		if (widthBorderWater > 3)
-			errorMessage.concat(
-					"\n Water field on the width of the border is " + widthBorderWater + " the maximal count is 3");
-		if (heightBorderWater > 1)
-			errorMessage.concat(
-					"\n Water field on the height of the border is " + heightBorderWater + " the maximal count is 1");
-		if (!errorMessage.isEmpty())
-			throw new Exception(errorMessage);
-	}
-
 }
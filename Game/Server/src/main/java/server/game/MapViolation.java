@@ -0,0 +1,43 @@
+package server.game;
+
+/*
+ * A business rule a HalfMap breaks, together with the message the player gets.
+ */
+public class MapViolation {
+	public enum Rule {
+		Size, Placement, Fortress, Border, Quantity, Islands
+	}
+
+	private final Rule rule;
+	private final String message;
+
+	/**
+	 * Constructor for MapViolation
+	 * 
+	 * @param rule    the Rule that is broken
+	 * @param message description of the violation
+	 */
+	public MapViolation(Rule rule, String message) {
+		this.rule = rule;
+		this.message = message;
+	}
+
+	/**
+	 * @return the Rule that is broken
+	 */
+	public Rule getRule() {
+		return rule;
+	}
+
+	/**
+	 * @return description of the violation
+	 */
+	public String getMessage() {
+		return message;
+	}
+
+	@Override
+	public String toString() {
+		return rule + ": " + message;
+	}
+}
@@ -9,9 +9,9 @@ public class Player {
 	private String lastName;
 	private String studentID;
 	private UniquePlayerIdentifier playerID;
-	private EPlayerGameState playerGameState;
-	private boolean sentHalfMap;
-	private long lastAction;
+	private volatile EPlayerGameState playerGameState;
+	private volatile boolean sentHalfMap;
+	private volatile long lastAction;
 
 	/**
 	 * Constructor for Player object that stores information of registered Player
@@ -37,6 +37,16 @@ public class Player {
 	public UniquePlayerIdentifier getPlayerID() {
 		return this.playerID;
 	}
+	/**
+	 * Setter for the time of the last action of the Player, used when a request
+	 * of the player was parked by the server so the waiting time doesn't count
+	 * against him.
+	 * 
+	 * @param time time in milliseconds at which the request has been answered
+	 */
+	public void setLastAction(long time) {
+		this.lastAction = time;
+	}
 	public boolean checkTime(long time) {
 		long elapsedTime = time-this.lastAction;
 		System.out.println("Time since last action of Player " + elapsedTime/1000 + " s");
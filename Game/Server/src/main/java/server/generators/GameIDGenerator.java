@@ -1,51 +1,78 @@
 package server.generators;
 
+import java.util.concurrent.ThreadLocalRandom;
+
+import server.game.Game;
 import server.storage.GameStorage;
 
 public class GameIDGenerator {
-	private char[] alphabet;
+	// alphanumeric characters both low and capital, shared by all generators
+	static final char[] ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz".toCharArray();
+	private static final int LENGTH = 5;
+
+	private final GameStorage storage;
 
 	/**
-	 * Constructor of GameIDGenerator, on call it creates the alphabet containing
-	 * alphanumeric characters both low and capital
+	 * Constructor of GameIDGenerator, the generated gameIDs are checked against
+	 * the storage of the server
 	 */
 	public GameIDGenerator() {
-		alphabet = new char[62];
-		// insert numerics into alphabet
-		for (int i = 0; i < 10; i++) {
-			alphabet[i] = (char) (48 + i);
-		}
-		// insert capital letters
-		for (int i = 0; i < 26; i++) {
-			alphabet[10 + i] = (char) (65 + i);
-		}
-		//
-		for (int i = 0; i < 26; i++) {
-			alphabet[36 + i] = (char) (97 + i);
-		}
+		this(GameStorage.getStorage());
 	}
 
 	/**
-	 * Method that generates a valid gameID get an instance of the storage in order
-	 * to check if generated gameID is used or not and to add the newly generated.
-	 * In order to generate the method creates 5 indexes in the range of the
-	 * alphabet and append the passing character to the string
+	 * Constructor of GameIDGenerator, the generated gameIDs are checked against
+	 * the given storage
+	 * 
+	 * @param storage GameStorage in which the gameID must not be used yet
+	 */
+	public GameIDGenerator(GameStorage storage) {
+		this.storage = storage;
+	}
+
+	/**
+	 * Method that generates a valid gameID. It picks 5 random characters of the
+	 * alphabet and tries again as long as the gameID is already used in the
+	 * storage, the lookup is a single hash lookup and every thread uses its own
+	 * random generator, so generating doesn't get slower with more games or more
+	 * threads.
 	 * 
 	 * @return randomly generated valid gameID
 	 */
 	public String generate() {
-		StringBuilder gameID;
-		GameStorage storage = GameStorage.getStorage();
-		try {
-			gameID = new StringBuilder();
-			for (int i = 0; i < 5; i++) {
-				int index = (int) (62 * Math.random());
-				gameID.append(String.valueOf(alphabet[index]));
-			}
-			storage.checkGameID(gameID.toString());
-			return gameID.toString();
-		} catch (Exception e) {
-			return generate();
-		}
+		String gameID;
+		do {
+			gameID = randomID(LENGTH);
+		} while (this.storage.containsGameID(gameID));
+		return gameID;
+	}
+
+	/**
+	 * Method that creates a new Game with a random gameID and stores it. The
+	 * gameID is only reserved once the game is stored, so if another game took the
+	 * same gameID in the meantime a new one is drawn.
+	 * 
+	 * @return the new Game, already in the storage
+	 */
+	public Game createGame() {
+		Game game;
+		do {
+			game = new Game(this.generate());
+		} while (!this.storage.storeGameIfAbsent(game));
+		return game;
+	}
+
+	/**
+	 * Method that creates a random string of alphanumeric characters
+	 * 
+	 * @param length length of the string
+	 * @return random string
+	 */
+	static String randomID(int length) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		char[] id = new char[length];
+		for (int i = 0; i < length; i++)
+			id[i] = ALPHABET[random.nextInt(ALPHABET.length)];
+		return new String(id);
 	}
-}
\ No newline at end of file
+}
@@ -1,41 +1,48 @@
 package server.generators;
 
+/*
+ * Every game has its own GameStateIDGenerator. The gameStateID is a random
+ * prefix chosen once per game followed by a version that is counted up with
+ * every change, so a new gameStateID costs no random numbers at all, never
+ * repeats within a game and a stale ETag of a deleted game with the same gameID
+ * doesn't match the new one. It isn't thread safe, the game only changes its
+ * gameStateID while it is locked.
+ */
 public class GameStateIDGenerator {
-	private char[] alphabet;
+	private static final int LENGTH = 15;
+	private static final int PREFIX_LENGTH = 4;
+
+	private final char[] id;
+	private long version;
 
 	/**
-	 * Constructor of GameStateIDGenerator, on call it creates the alphabet
-	 * containing alphanumeric characters both low and capital
+	 * Constructor of GameStateIDGenerator, on call it chooses the random prefix of
+	 * the gameStateIDs of a game
 	 */
 	public GameStateIDGenerator() {
-		alphabet = new char[62];
-		// insert numerics into alphabet
-		for (int i = 0; i < 10; i++) {
-			alphabet[i] = (char) (48 + i);
-		}
-		// insert capital letters
-		for (int i = 0; i < 26; i++) {
-			alphabet[10 + i] = (char) (65 + i);
-		}
-		//
-		for (int i = 0; i < 26; i++) {
-			alphabet[36 + i] = (char) (97 + i);
-		}
+		this.id = new char[LENGTH];
+		GameIDGenerator.randomID(PREFIX_LENGTH).getChars(0, PREFIX_LENGTH, this.id, 0);
 	}
 
 	/**
-	 * Method that generates a valid GameStateID In order to generate the method
-	 * creates 15 indexes in the range of the alphabet and append the passing
-	 * character to the string
+	 * Method that generates the next GameStateID of the game, the version is
+	 * written in base 62 behind the prefix and padded to 15 characters
 	 * 
-	 * @return randomly generated gameStateID
+	 * @return the next gameStateID
 	 */
 	public String generate() {
-		StringBuilder uniqueGameStateID = new StringBuilder();
-		for (int i = 0; i < 15; i++) {
-			int index = (int) (62 * Math.random());
-			uniqueGameStateID.append(String.valueOf(alphabet[index]));
+		long remaining = ++this.version;
+		for (int i = LENGTH - 1; i >= PREFIX_LENGTH; i--) {
+			this.id[i] = GameIDGenerator.ALPHABET[(int) (remaining % GameIDGenerator.ALPHABET.length)];
+			remaining /= GameIDGenerator.ALPHABET.length;
 		}
-		return uniqueGameStateID.toString();
+		return new String(this.id);
+	}
+
+	/**
+	 * @return version of the last generated gameStateID, 0 if none was generated
+	 */
+	public long getVersion() {
+		return this.version;
 	}
 }
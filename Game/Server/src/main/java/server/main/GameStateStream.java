@@ -0,0 +1,196 @@
+package server.main;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.slf4j.LoggerFactory;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import server.convertors.GameStateSerializer;
+import server.game.Game;
+import server.game.GameSnapshot;
+import server.game.Player;
+import server.storage.GameStorage;
+
+/*
+ * A stream of the GameState of one player of a game as Server-Sent Events. The
+ * game calls the listener while it is locked, so the listener only remembers
+ * the newest snapshot and a shared pool of sender threads writes it to the
+ * client. If the game changes faster than a client reads, states in between are
+ * skipped, the client always ends up with the newest one.
+ */
+public class GameStateStream {
+	private static org.slf4j.Logger logger = LoggerFactory.getLogger(GameStateStream.class);
+	private static final ExecutorService sender = Executors.newFixedThreadPool(
+			Math.max(2, Runtime.getRuntime().availableProcessors()), runnable -> {
+				Thread thread = new Thread(runnable, "game-state-stream");
+				thread.setDaemon(true);
+				return thread;
+			});
+	private static final AtomicInteger openStreams = new AtomicInteger();
+	private static final LongAdder sentEvents = new LongAdder();
+	private static final LongAdder sendNanos = new LongAdder();
+	private static final AtomicLong maxSendNanos = new AtomicLong();
+
+	private final Game game;
+	private final Player player;
+	private final SseEmitter emitter;
+	private final AtomicReference<GameSnapshot> pending = new AtomicReference<>();
+	private final AtomicBoolean sending = new AtomicBoolean();
+	private final AtomicBoolean closed = new AtomicBoolean();
+	private final Consumer<GameSnapshot> listener = this::push;
+	private String lastSentGameStateID;
+
+	/**
+	 * Constructor for a GameStateStream of a player, the stream is only started
+	 * with open().
+	 *
+	 * @param game    Game whose states are streamed
+	 * @param player  Player that receives the states
+	 * @param timeout time in milliseconds after which the stream is closed
+	 */
+	public GameStateStream(Game game, Player player, long timeout) {
+		this(game, player, new SseEmitter(timeout));
+	}
+
+	/**
+	 * Constructor for a GameStateStream that sends over the given emitter, the
+	 * stream is only started with open().
+	 *
+	 * @param game    Game whose states are streamed
+	 * @param player  Player that receives the states
+	 * @param emitter SseEmitter the states are sent with
+	 */
+	GameStateStream(Game game, Player player, SseEmitter emitter) {
+		this.game = game;
+		this.player = player;
+		this.emitter = emitter;
+	}
+
+	/**
+	 * Method that starts the stream, the current GameState is sent right away and
+	 * then every new one until the stream is closed.
+	 *
+	 * @return SseEmitter that needs to be returned to spring
+	 */
+	public SseEmitter open() {
+		this.emitter.onCompletion(this::close);
+		this.emitter.onTimeout(this::close);
+		this.emitter.onError(error -> this.close());
+		openStreams.incrementAndGet();
+		this.game.addListener(this.listener);
+		this.push(this.game.getSnapshot());
+		return this.emitter;
+	}
+
+	/**
+	 * Remembers a new snapshot and starts a sender if none is running for this
+	 * stream.
+	 *
+	 * @param snapshot the new GameSnapshot
+	 */
+	private void push(GameSnapshot snapshot) {
+		this.pending.set(snapshot);
+		if (this.sending.compareAndSet(false, true))
+			sender.execute(this::drain);
+	}
+
+	/**
+	 * Sends the pending snapshots until there is none left, a snapshot pushed
+	 * right after the last check starts the loop again.
+	 */
+	private void drain() {
+		do {
+			GameSnapshot snapshot;
+			while ((snapshot = this.pending.getAndSet(null)) != null && !this.closed.get())
+				this.send(snapshot);
+			this.sending.set(false);
+		} while (this.pending.get() != null && !this.closed.get() && this.sending.compareAndSet(false, true));
+	}
+
+	/**
+	 * Sends the GameState of a snapshot as event with the gameStateID as id and
+	 * the XML of the ResponseEnvelope as data. Every sent event counts as answer to
+	 * the player, just like a state request.
+	 *
+	 * @param snapshot GameSnapshot that needs to be sent
+	 */
+	private void send(GameSnapshot snapshot) {
+		if (snapshot.getGameStateID().equals(this.lastSentGameStateID))
+			return;
+		long start = System.nanoTime();
+		try {
+			String data = new String(GameStateSerializer.serialize(snapshot, this.player), StandardCharsets.UTF_8);
+			this.emitter.send(SseEmitter.event().id(snapshot.getGameStateID()).name("state").data(data));
+			this.lastSentGameStateID = snapshot.getGameStateID();
+			this.player.setLastAction(System.currentTimeMillis());
+		} catch (IOException | RuntimeException e) {
+			logger.info("Closing GameState stream of Player " + this.player.getPlayerID().getUniquePlayerID() + ": "
+					+ e.getMessage());
+			this.emitter.completeWithError(e);
+			this.close();
+			return;
+		}
+		long elapsed = System.nanoTime() - start;
+		sentEvents.increment();
+		sendNanos.add(elapsed);
+		maxSendNanos.accumulateAndGet(elapsed, Math::max);
+	}
+
+	/**
+	 * Stops listening to the game, called once the stream is completed, timed out
+	 * or failed.
+	 */
+	private void close() {
+		if (!this.closed.compareAndSet(false, true))
+			return;
+		this.game.removeListener(this.listener);
+		openStreams.decrementAndGet();
+		GameStorage.getStorage().touch(this.game);
+	}
+
+	/**
+	 * Method to get the number of streams that are currently open
+	 *
+	 * @return number of open streams
+	 */
+	public static int getOpenStreams() {
+		return openStreams.get();
+	}
+
+	/**
+	 * Method to get the number of events sent over all streams
+	 *
+	 * @return number of sent events
+	 */
+	public static long getSentEvents() {
+		return sentEvents.sum();
+	}
+
+	/**
+	 * Method to get the average time it took to serialize and write an event
+	 *
+	 * @return average send latency in microseconds, 0 if nothing was sent yet
+	 */
+	public static long getAverageSendMicros() {
+		long events = sentEvents.sum();
+		return events == 0 ? 0 : sendNanos.sum() / events / 1000;
+	}
+
+	/**
+	 * Method to get the longest time it took to serialize and write an event
+	 *
+	 * @return maximal send latency in microseconds
+	 */
+	public static long getMaxSendMicros() {
+		return maxSendNanos.get() / 1000;
+	}
+}
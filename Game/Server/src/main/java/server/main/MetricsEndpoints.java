@@ -0,0 +1,39 @@
+package server.main;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import server.storage.GameExpiry;
+import server.storage.GameStorage;
+import server.storage.HalfMapIndex;
+
+@Controller
+@RequestMapping(value = "/metrics")
+public class MetricsEndpoints {
+
+	/**
+	 * Method to handle GET Requests at the /metrics endpoint of the server. It
+	 * reports one metric per line as name and value separated by a space.
+	 *
+	 * @return the current metrics of the server
+	 */
+	@RequestMapping(value = "", method = RequestMethod.GET, produces = MediaType.TEXT_PLAIN_VALUE)
+	public @ResponseBody String metrics() {
+		GameStorage storage = GameStorage.getStorage();
+		GameExpiry expiry = storage.getExpiry();
+		StringBuilder metrics = new StringBuilder();
+		metrics.append("games.stored ").append(storage.size()).append('\n');
+		metrics.append("games.pendingExpiry ").append(expiry.getPendingExpiry()).append('\n');
+		metrics.append("games.evicted ").append(expiry.getEvictedCount()).append('\n');
+		metrics.append("halfmaps.indexed ").append(HalfMapIndex.getIndex().size()).append('\n');
+		metrics.append("halfmaps.nearDuplicates ").append(HalfMapIndex.getIndex().getNearDuplicates()).append('\n');
+		metrics.append("streams.open ").append(GameStateStream.getOpenStreams()).append('\n');
+		metrics.append("streams.eventsSent ").append(GameStateStream.getSentEvents()).append('\n');
+		metrics.append("streams.sendLatency.avgMicros ").append(GameStateStream.getAverageSendMicros()).append('\n');
+		metrics.append("streams.sendLatency.maxMicros ").append(GameStateStream.getMaxSendMicros()).append('\n');
+		return metrics.toString();
+	}
+}
@@ -1,31 +1,48 @@
 package server.main;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
 import javax.servlet.http.HttpServletResponse;
 
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import MessagesBase.HalfMap;
+import MessagesBase.PlayerMove;
 import MessagesBase.PlayerRegistration;
 import MessagesBase.ResponseEnvelope;
 import MessagesBase.UniqueGameIdentifier;
 import MessagesBase.UniquePlayerIdentifier;
+import MessagesGameState.EPlayerGameState;
 import MessagesGameState.GameState;
 import server.convertors.GameStateConverter;
+import server.convertors.GameStateSerializer;
 import server.exceptions.BaseServerException;
 import server.exceptions.CreateGameException;
 import server.exceptions.GameStateRequestException;
 import server.exceptions.HalfMapRegistrationException;
+import server.exceptions.MoveException;
 import server.exceptions.PlayerRegistrationException;
 import server.game.Game;
+import server.game.GameSnapshot;
 import server.game.Player;
 import server.generators.GameIDGenerator;
 import server.storage.GameStorage;
@@ -34,10 +51,21 @@ import server.storage.GameStorage;
 @RequestMapping(value = "/games")
 public class ServerEndpoints {
 	private static org.slf4j.Logger logger = LoggerFactory.getLogger(ServerEndpoints.class);
+	// how long a state poll is parked at most, e.g. -Dgame.poll.timeout.seconds=10
+	private static final long POLL_TIMEOUT = TimeUnit.SECONDS.toMillis(Long.getLong("game.poll.timeout.seconds", 30));
+	// how long a state stream stays open, e.g. -Dgame.stream.timeout.minutes=5
+	private static final long STREAM_TIMEOUT = TimeUnit.MINUTES.toMillis(Long.getLong("game.stream.timeout.minutes", 10));
+	// answers parked polls, the game calls their listeners while it is locked and must not wait for the XML
+	private static final ExecutorService responder = Executors.newFixedThreadPool(
+			Math.max(2, Runtime.getRuntime().availableProcessors()), runnable -> {
+				Thread thread = new Thread(runnable, "game-state-poll");
+				thread.setDaemon(true);
+				return thread;
+			});
 
 	/**
 	 * Method to handle GET Requests at the base Endpoint of the server. It creates
-	 * a new GameIDGenerator and generates a new valid gameID
+	 * a new GameIDGenerator that creates and stores a game with a new valid gameID
 	 * 
 	 * @return randomly generated valid GameID
 	 */
@@ -45,15 +73,13 @@ public class ServerEndpoints {
 	public @ResponseBody UniqueGameIdentifier newGame() {
 
 		GameIDGenerator generator = new GameIDGenerator();
-		UniqueGameIdentifier gameID = new UniqueGameIdentifier(generator.generate());
-		Game activeGame = new Game(gameID.getUniqueGameID());
 		try {
-			GameStorage.getStorage().storeGame(activeGame);
+			Game activeGame = generator.createGame();
 			logger.info("Generated Game: " + activeGame.getGameID());
-		} catch (Exception e) {
+			return new UniqueGameIdentifier(activeGame.getGameID());
+		} catch (RuntimeException e) {
 			throw new CreateGameException(e.getMessage());
 		}
-		return gameID;
 
 	}
 
@@ -106,9 +132,14 @@ public class ServerEndpoints {
 			Player p = game.getPlayerByID(halfMap.getUniquePlayerID());
 			if(!p.checkTime(timeNow)) {
 				game.lostGame(p.getPlayerID().getUniquePlayerID());
+				GameStorage.getStorage().touch(game);
 				throw new HalfMapRegistrationException("Message: Player " + p.getPlayerID().getUniquePlayerID() + " took too long to make an action!" );
 			}
-			game.addHalfMap(halfMap);
+			try {
+				game.addHalfMap(halfMap);
+			} finally {
+				GameStorage.getStorage().touch(game);
+			}
 			logger.info("Player " + halfMap.getUniquePlayerID() + " sent a valid HalfMap to game " + gameID);
 			return new ResponseEnvelope<>(
 					GameStateConverter.convert(game, game.getPlayerByID(halfMap.getUniquePlayerID())));
@@ -118,31 +149,188 @@ public class ServerEndpoints {
 		}
 
 	}
+	/**
+	 * Method to handle POST requests at the /<gameID>/moves endpoint of the
+	 * server. The method gets the game with the given ID from the storage and the
+	 * player that sent the move. After that it passes the move to the game, if the
+	 * move violates any of the business rules, an error is caught and forwarded.
+	 * 
+	 * @param gameID ID of the game that the player tries to move in
+	 * @param move   the PlayerMove holding the player and the direction
+	 * @return the current GameState of the game
+	 */
+	@RequestMapping(value = "/{gameID}/moves", method = RequestMethod.POST, consumes = MediaType.APPLICATION_XML_VALUE, produces = MediaType.APPLICATION_XML_VALUE)
+	public @ResponseBody ResponseEnvelope<GameState> recieveMove(@PathVariable String gameID,
+			@Validated @RequestBody PlayerMove move) {
+		try {
+			long timeNow = System.currentTimeMillis();
+			Game game = GameStorage.getStorage().getGameById(gameID);
+			Player p = game.getPlayerByID(move.getUniquePlayerID());
+			if(!p.checkTime(timeNow)) {
+				game.lostGame(p.getPlayerID().getUniquePlayerID());
+				GameStorage.getStorage().touch(game);
+				throw new MoveException("Message: Player " + p.getPlayerID().getUniquePlayerID() + " took too long to make an action!" );
+			}
+			try {
+				game.move(move);
+			} finally {
+				GameStorage.getStorage().touch(game);
+			}
+			logger.info("Player " + move.getUniquePlayerID() + " moved " + move.getMove() + " in game " + gameID);
+			return new ResponseEnvelope<>(GameStateConverter.convert(game, p));
+		} catch (Exception e) {
+			throw new MoveException("Message: " + e.getMessage());
+		}
+	}
+
 	/**
 	 * Method that handles GET Requests at the /<gameID>/states/<playerID> endpoint of the server.
 	 * The method fetches the game with the given gameID from the Storage, if the game doesn't exist it throws an error.
 	 * Then it gets the Player object that asked for the state and returns the GameState of the game.
+	 * The response is written from the XML cached for the current gameStateID, which is also sent as ETag.
+	 * If the client sends the current gameStateID in If-None-Match, only 304 Not Modified is returned.
 	 * @param gameID ID of the game that the player wants to get the state of
 	 * @param playerID the ID of the player that tries to get the State
+	 * @param ifNoneMatch the ETag of the last GameState the client has received, if any
 	 * @return GameState of game
 	 */
 	@RequestMapping(value = "/{gameID}/states/{playerID}", method = RequestMethod.GET, produces = MediaType.APPLICATION_XML_VALUE)
-	public @ResponseBody ResponseEnvelope<GameState> getGameState(@PathVariable String gameID,
-			@PathVariable String playerID) {
+	public ResponseEntity<byte[]> getGameState(@PathVariable String gameID, @PathVariable String playerID,
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 		try {
 			long timeNow = System.currentTimeMillis();
 			Game game = GameStorage.getStorage().getGameById(gameID);
 			Player p = game.getPlayerByID(playerID);
 			if(!p.checkTime(timeNow)) {
 				game.lostGame(p.getPlayerID().getUniquePlayerID());
+				GameStorage.getStorage().touch(game);
 				throw new GameStateRequestException("Message: Player " + p.getPlayerID().getUniquePlayerID() + " took too long to make an action!" );
 			}
+			GameSnapshot snapshot = game.getSnapshot();
+			if (toETag(snapshot.getGameStateID()).equals(ifNoneMatch))
+				return notModified(snapshot);
 			logger.info("Player " + playerID + " succesfully got GameState for Game " + gameID);
-			return new ResponseEnvelope<>(GameStateConverter.convert(game, game.getPlayerByID(playerID)));
+			return stateResponse(snapshot, p);
+		} catch (Exception e) {
+			throw new GameStateRequestException("Message: " + e.getMessage());
+		}
+
+	}
+
+	/**
+	 * Method that handles GET Requests at the /<gameID>/states/<playerID>/poll endpoint of the server.
+	 * It answers like getGameState, but if the client already knows the current state (its gameStateID is sent in If-None-Match)
+	 * the request is parked without holding a thread until the game changes, then the new GameState is sent.
+	 * If nothing changes before the poll timeout 304 Not Modified is sent and the client polls again.
+	 * If the poll hands the player his turn, his time to act starts when the new GameState is sent,
+	 * a poll that times out with 304 during his turn doesn't reset the time, so a player can't keep his turn by polling.
+	 * The listener of the poll is called while the game is locked, so the GameState is written on a thread of its own.
+	 * @param gameID ID of the game that the player wants to get the state of
+	 * @param playerID the ID of the player that tries to get the State
+	 * @param ifNoneMatch the ETag of the last GameState the client has received, if any
+	 * @return GameState of game once it differs from the one the client has
+	 */
+	@RequestMapping(value = "/{gameID}/states/{playerID}/poll", method = RequestMethod.GET, produces = MediaType.APPLICATION_XML_VALUE)
+	public DeferredResult<ResponseEntity<byte[]>> pollGameState(@PathVariable String gameID, @PathVariable String playerID,
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+		DeferredResult<ResponseEntity<byte[]>> result = new DeferredResult<>(POLL_TIMEOUT);
+		Game game;
+		Player p;
+		try {
+			long timeNow = System.currentTimeMillis();
+			game = GameStorage.getStorage().getGameById(gameID);
+			p = game.getPlayerByID(playerID);
+			if(!p.checkTime(timeNow)) {
+				game.lostGame(p.getPlayerID().getUniquePlayerID());
+				GameStorage.getStorage().touch(game);
+				throw new GameStateRequestException("Message: Player " + p.getPlayerID().getUniquePlayerID() + " took too long to make an action!" );
+			}
 		} catch (Exception e) {
 			throw new GameStateRequestException("Message: " + e.getMessage());
 		}
+		// only the poll that hands the player his turn restarts his clock, a timed out poll never does while
+		// it is his turn, otherwise he could keep it forever by polling, but a player still waiting isn't to blame
+		boolean waiting = game.getSnapshot().getPlayerGameState(p) != EPlayerGameState.ShouldActNext;
+		// a poll is answered once, later snapshots don't write another GameState
+		AtomicBoolean answered = new AtomicBoolean();
+		Consumer<GameSnapshot> listener = snapshot -> {
+			if (toETag(snapshot.getGameStateID()).equals(ifNoneMatch) || !answered.compareAndSet(false, true))
+				return;
+			responder.execute(() -> {
+				if (result.setResult(stateResponse(snapshot, p)) && waiting
+						&& snapshot.getPlayerGameState(p) == EPlayerGameState.ShouldActNext)
+					p.setLastAction(System.currentTimeMillis());
+			});
+		};
+		result.onTimeout(() -> {
+			GameSnapshot snapshot = game.getSnapshot();
+			if (result.setResult(notModified(snapshot))
+					&& snapshot.getPlayerGameState(p) != EPlayerGameState.ShouldActNext)
+				p.setLastAction(System.currentTimeMillis());
+		});
+		result.onCompletion(() -> {
+			game.removeListener(listener);
+			GameStorage.getStorage().touch(game);
+		});
+		game.addListener(listener);
+		// the game could have changed before the listener was added
+		listener.accept(game.getSnapshot());
+		return result;
+	}
 
+	/**
+	 * Method that handles GET Requests at the /<gameID>/states/<playerID>/stream endpoint of the server.
+	 * It opens a stream of Server-Sent Events, the current GameState is sent right away and then every new one
+	 * as soon as the game changes. The id of every event is the gameStateID and its data the same XML that getGameState returns.
+	 * @param gameID ID of the game that the player wants to get the states of
+	 * @param playerID the ID of the player that tries to get the States
+	 * @return SseEmitter that sends the GameStates
+	 */
+	@RequestMapping(value = "/{gameID}/states/{playerID}/stream", method = RequestMethod.GET, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter streamGameState(@PathVariable String gameID, @PathVariable String playerID) {
+		try {
+			long timeNow = System.currentTimeMillis();
+			Game game = GameStorage.getStorage().getGameById(gameID);
+			Player p = game.getPlayerByID(playerID);
+			if(!p.checkTime(timeNow)) {
+				game.lostGame(p.getPlayerID().getUniquePlayerID());
+				GameStorage.getStorage().touch(game);
+				throw new GameStateRequestException("Message: Player " + p.getPlayerID().getUniquePlayerID() + " took too long to make an action!" );
+			}
+			logger.info("Player " + playerID + " opened a GameState stream for Game " + gameID);
+			return new GameStateStream(game, p, STREAM_TIMEOUT).open();
+		} catch (Exception e) {
+			throw new GameStateRequestException("Message: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Method that builds the response with the GameState of a snapshot, written from the cached XML.
+	 * @param snapshot GameSnapshot that is sent
+	 * @param player the Player that requested the GameState
+	 * @return response with the GameState and its gameStateID as ETag
+	 */
+	private static ResponseEntity<byte[]> stateResponse(GameSnapshot snapshot, Player player) {
+		return ResponseEntity.ok().eTag(toETag(snapshot.getGameStateID())).contentType(MediaType.APPLICATION_XML)
+				.body(GameStateSerializer.serialize(snapshot, player));
+	}
+
+	/**
+	 * Method that builds the 304 Not Modified response for a snapshot the client already has.
+	 * @param snapshot the current GameSnapshot
+	 * @return empty response with the gameStateID as ETag
+	 */
+	private static ResponseEntity<byte[]> notModified(GameSnapshot snapshot) {
+		return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(toETag(snapshot.getGameStateID())).build();
+	}
+
+	/**
+	 * Method that turns a gameStateID into an ETag, which has to be quoted.
+	 * @param gameStateID the gameStateID
+	 * @return the ETag for the gameStateID
+	 */
+	private static String toETag(String gameStateID) {
+		return '"' + gameStateID + '"';
 	}
 
 	@ExceptionHandler({ BaseServerException.class })
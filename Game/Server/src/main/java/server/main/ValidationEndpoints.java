@@ -0,0 +1,76 @@
+package server.main;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import MessagesBase.ResponseEnvelope;
+import server.exceptions.BaseServerException;
+import server.exceptions.HalfMapValidationException;
+import server.game.MapValidator;
+import server.messages.HalfMapBatch;
+import server.messages.HalfMapVerdict;
+
+@Controller
+@RequestMapping(value = "/halfmaps")
+public class ValidationEndpoints {
+	private static org.slf4j.Logger logger = LoggerFactory.getLogger(ValidationEndpoints.class);
+	// can be overridden on start, e.g. -Dgame.validation.maxBatch=50000
+	private static final int MAX_BATCH = Integer.getInteger("game.validation.maxBatch", 10000);
+	private static final long TIMEOUT = TimeUnit.MINUTES.toMillis(1);
+
+	/**
+	 * Method to handle POST requests at the /halfmaps/validations endpoint of the
+	 * server. The HalfMaps are checked against the same rules a HalfMap sent to a
+	 * game is checked against, without the checks of the sender, in parallel on
+	 * all cores. The verdict of every HalfMap is sent as Server-Sent Event as soon
+	 * as it is ready, the id of the event is the position of the HalfMap in the
+	 * batch.
+	 * 
+	 * @param batch the HalfMaps that need to be validated
+	 * @return SseEmitter that sends the verdicts
+	 */
+	@RequestMapping(value = "/validations", method = RequestMethod.POST, consumes = MediaType.APPLICATION_XML_VALUE, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter validateHalfMaps(@RequestBody HalfMapBatch batch) {
+		if (batch.getHalfMaps().size() > MAX_BATCH)
+			throw new HalfMapValidationException("Message: At most " + MAX_BATCH + " HalfMaps can be validated at once, "
+					+ batch.getHalfMaps().size() + " were sent");
+		SseEmitter emitter = new SseEmitter(TIMEOUT);
+		MapValidator.validateAll(batch.getHalfMaps(), (index, violations) -> {
+			try {
+				emitter.send(SseEmitter.event().id(String.valueOf(index)).name("verdict")
+						.data(new HalfMapVerdict(index, violations), MediaType.APPLICATION_XML));
+			} catch (IOException e) {
+				throw new HalfMapValidationException("Message: " + e.getMessage());
+			}
+		}).whenComplete((result, error) -> {
+			if (error != null) {
+				logger.info("Validation of " + batch.getHalfMaps().size() + " HalfMaps stopped: " + error.getMessage());
+				emitter.completeWithError(error);
+			} else {
+				logger.info("Validated " + batch.getHalfMaps().size() + " HalfMaps");
+				emitter.complete();
+			}
+		});
+		return emitter;
+	}
+
+	@ExceptionHandler({ BaseServerException.class })
+	public @ResponseBody ResponseEnvelope<?> handleException(BaseServerException ex, HttpServletResponse response) {
+		ResponseEnvelope<?> result = new ResponseEnvelope<>(ex.getErrorName(), ex.getMessage());
+		logger.error(ex.getErrorName() + " " + ex.getMessage());
+		response.setStatus(HttpServletResponse.SC_OK);
+		return result;
+	}
+}
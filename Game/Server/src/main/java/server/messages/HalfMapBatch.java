@@ -0,0 +1,40 @@
+package server.messages;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import MessagesBase.HalfMap;
+
+/*
+ * Message holding the HalfMaps that should be validated at once.
+ */
+@XmlRootElement(name = "halfMaps")
+@XmlAccessorType(XmlAccessType.FIELD)
+public class HalfMapBatch {
+	@XmlElement(name = "halfMap")
+	private List<HalfMap> halfMaps = new ArrayList<>();
+
+	public HalfMapBatch() {
+	}
+
+	/**
+	 * Constructor for HalfMapBatch
+	 * 
+	 * @param halfMaps the HalfMaps that should be validated
+	 */
+	public HalfMapBatch(List<HalfMap> halfMaps) {
+		this.halfMaps = new ArrayList<>(halfMaps);
+	}
+
+	/**
+	 * @return the HalfMaps that should be validated
+	 */
+	public List<HalfMap> getHalfMaps() {
+		return halfMaps;
+	}
+}
@@ -0,0 +1,60 @@
+package server.messages;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import server.game.MapViolation;
+
+/*
+ * Message with the result of the validation of one HalfMap of a HalfMapBatch.
+ */
+@XmlRootElement(name = "halfMapVerdict")
+@XmlAccessorType(XmlAccessType.FIELD)
+public class HalfMapVerdict {
+	private int index;
+	private boolean valid;
+	@XmlElement(name = "violation")
+	private List<String> violations = new ArrayList<>();
+
+	public HalfMapVerdict() {
+	}
+
+	/**
+	 * Constructor for HalfMapVerdict
+	 * 
+	 * @param index      position of the HalfMap in the batch
+	 * @param violations every rule the HalfMap breaks
+	 */
+	public HalfMapVerdict(int index, List<MapViolation> violations) {
+		this.index = index;
+		this.valid = violations.isEmpty();
+		for (MapViolation violation : violations)
+			this.violations.add(violation.toString());
+	}
+
+	/**
+	 * @return position of the HalfMap in the batch
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	/**
+	 * @return whether the HalfMap is valid
+	 */
+	public boolean isValid() {
+		return valid;
+	}
+
+	/**
+	 * @return every rule the HalfMap breaks, as rule and message
+	 */
+	public List<String> getViolations() {
+		return violations;
+	}
+}
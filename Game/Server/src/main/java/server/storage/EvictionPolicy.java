@@ -0,0 +1,33 @@
+package server.storage;
+
+import server.game.Game;
+
+public interface EvictionPolicy {
+	/**
+	 * Method that gives the deadline of a game that was just stored
+	 *
+	 * @param game the stored Game
+	 * @param now  current time in milliseconds
+	 * @return time in milliseconds at which the game expires
+	 */
+	long deadlineOnStore(Game game, long now);
+
+	/**
+	 * Method that gives the deadline of a game after it has been accessed, e.g.
+	 * by a state poll or a HalfMap.
+	 *
+	 * @param game     the accessed Game
+	 * @param now      current time in milliseconds
+	 * @param deadline the current deadline of the game
+	 * @return new time in milliseconds at which the game expires
+	 */
+	long deadlineOnAccess(Game game, long now, long deadline);
+
+	/**
+	 * Method that tells the storage which game to drop when it is full
+	 *
+	 * @return true if the game with the earliest deadline should be dropped, false
+	 *         if the oldest game should be dropped
+	 */
+	boolean dropsEarliestDeadline();
+}
@@ -0,0 +1,33 @@
+package server.storage;
+
+import server.game.Game;
+
+public class FixedLifetimePolicy implements EvictionPolicy {
+	private final long lifetime;
+
+	/**
+	 * Constructor for FixedLifetimePolicy, every game expires after the same time
+	 * since its creation no matter if it is played or not, when the storage is
+	 * full the oldest game is dropped.
+	 *
+	 * @param lifetime milliseconds a game stays in the storage
+	 */
+	public FixedLifetimePolicy(long lifetime) {
+		this.lifetime = lifetime;
+	}
+
+	@Override
+	public long deadlineOnStore(Game game, long now) {
+		return now + this.lifetime;
+	}
+
+	@Override
+	public long deadlineOnAccess(Game game, long now, long deadline) {
+		return deadline;
+	}
+
+	@Override
+	public boolean dropsEarliestDeadline() {
+		return false;
+	}
+}
@@ -0,0 +1,214 @@
+package server.storage;
+
+import java.util.ArrayList;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+import org.slf4j.LoggerFactory;
+
+public class GameExpiry {
+	private static org.slf4j.Logger logger = LoggerFactory.getLogger(GameExpiry.class);
+
+	private final ConcurrentHashMap<String, Long> deadlines;
+	private final ConcurrentSkipListSet<Deadline> queue;
+	private final AtomicLong evicted;
+	private final long sweepIntervalMillis;
+	private ScheduledExecutorService scheduler;
+
+	/**
+	 * Constructor for GameExpiry, that keeps track of the time at which every
+	 * stored game has to be deleted. The deadlines are kept in a set ordered by
+	 * time, so a single scheduler thread can evict everything that expired since
+	 * the last sweep in one batch instead of running one task per game.
+	 *
+	 * @param sweepIntervalMillis how often the expired games should be evicted
+	 */
+	public GameExpiry(long sweepIntervalMillis) {
+		this.deadlines = new ConcurrentHashMap<>();
+		this.queue = new ConcurrentSkipListSet<>();
+		this.evicted = new AtomicLong();
+		this.sweepIntervalMillis = sweepIntervalMillis;
+	}
+
+	/**
+	 * Starts the shared scheduler thread that periodically evicts the games whose
+	 * deadline has passed.
+	 *
+	 * @param onExpired called with the gameID of every expired game
+	 */
+	public void start(Consumer<String> onExpired) {
+		this.start(System::currentTimeMillis, onExpired);
+	}
+
+	/**
+	 * Starts the shared scheduler thread that periodically evicts the games whose
+	 * deadline has passed on the given clock.
+	 *
+	 * @param clock     current time in milliseconds
+	 * @param onExpired called with the gameID of every expired game
+	 */
+	public synchronized void start(LongSupplier clock, Consumer<String> onExpired) {
+		if (this.scheduler != null)
+			return;
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "game-expiry");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.scheduler.scheduleWithFixedDelay(() -> this.sweep(clock.getAsLong(), onExpired),
+				this.sweepIntervalMillis, this.sweepIntervalMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stops the scheduler thread, the deadlines are kept.
+	 */
+	public synchronized void stop() {
+		if (this.scheduler != null)
+			this.scheduler.shutdownNow();
+		this.scheduler = null;
+	}
+
+	/**
+	 * Method that sets the deadline of a game, if the game already has a deadline
+	 * it is replaced.
+	 *
+	 * @param gameID   ID of the game
+	 * @param deadline time in milliseconds at which the game expires
+	 */
+	public void schedule(String gameID, long deadline) {
+		this.deadlines.compute(gameID, (id, old) -> {
+			if (old != null)
+				this.queue.remove(new Deadline(old, id));
+			this.queue.add(new Deadline(deadline, id));
+			return deadline;
+		});
+	}
+
+	/**
+	 * Method that removes the deadline of a game, used when the game leaves the
+	 * storage in another way.
+	 *
+	 * @param gameID ID of the game
+	 */
+	public void cancel(String gameID) {
+		this.deadlines.computeIfPresent(gameID, (id, old) -> {
+			this.queue.remove(new Deadline(old, id));
+			return null;
+		});
+	}
+
+	/**
+	 * Method that evicts every game whose deadline is not after the given time.
+	 * A game whose deadline is moved while the sweep runs is skipped.
+	 *
+	 * @param now       current time in milliseconds
+	 * @param onExpired called with the gameID of every expired game
+	 * @return number of evicted games
+	 */
+	public int sweep(long now, Consumer<String> onExpired) {
+		ArrayList<Deadline> expired = new ArrayList<>(this.queue.headSet(new Deadline(now, null), true));
+		int count = 0;
+		for (Deadline deadline : expired) {
+			if (this.deadlines.remove(deadline.gameID, deadline.time)) {
+				this.queue.remove(deadline);
+				try {
+					onExpired.accept(deadline.gameID);
+				} catch (Exception e) {
+					logger.error("Could not evict game " + deadline.gameID + " " + e.getMessage());
+				}
+				count++;
+			}
+		}
+		if (count > 0) {
+			this.evicted.addAndGet(count);
+			logger.info("Evicted " + count + " expired games, " + this.deadlines.size() + " pending expiry");
+		}
+		return count;
+	}
+
+	/**
+	 * Method to get the deadline of a game
+	 *
+	 * @param gameID ID of the game
+	 * @return time in milliseconds at which the game expires, Long.MAX_VALUE if it
+	 *         has no deadline
+	 */
+	public long getDeadline(String gameID) {
+		Long deadline = this.deadlines.get(gameID);
+		return deadline == null ? Long.MAX_VALUE : deadline;
+	}
+
+	/**
+	 * Method to get the game that expires next
+	 *
+	 * @return ID of the game with the earliest deadline, null if no game has a
+	 *         deadline
+	 */
+	public String getEarliest() {
+		try {
+			return this.queue.first().gameID;
+		} catch (NoSuchElementException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @return number of games that have a deadline and haven't expired yet
+	 */
+	public int getPendingExpiry() {
+		return this.deadlines.size();
+	}
+
+	/**
+	 * @return number of games that were evicted because their deadline passed
+	 */
+	public long getEvictedCount() {
+		return this.evicted.get();
+	}
+
+	private static class Deadline implements Comparable<Deadline> {
+		private final long time;
+		private final String gameID;
+
+		private Deadline(long time, String gameID) {
+			this.time = time;
+			this.gameID = gameID;
+		}
+
+		/**
+		 * Deadlines are ordered by time and then by gameID, a deadline without
+		 * gameID is placed after every other deadline of the same time, so it can be
+		 * used as an inclusive upper bound.
+		 */
+		@Override
+		public int compareTo(Deadline other) {
+			int result = Long.compare(this.time, other.time);
+			if (result != 0)
+				return result;
+			if (this.gameID == null)
+				return other.gameID == null ? 0 : 1;
+			if (other.gameID == null)
+				return -1;
+			return this.gameID.compareTo(other.gameID);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Deadline))
+				return false;
+			return this.compareTo((Deadline) obj) == 0;
+		}
+
+		@Override
+		public int hashCode() {
+			return Long.hashCode(time) * 31 + (gameID == null ? 0 : gameID.hashCode());
+		}
+	}
+}
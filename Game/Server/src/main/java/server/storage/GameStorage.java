@@ -1,96 +1,324 @@
 package server.storage;
 
-import java.util.ArrayList;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.slf4j.LoggerFactory;
 
 import server.game.Game;
 
 public class GameStorage {
-	private static GameStorage instance = null;
-	private ArrayList<Game> storage;
+	private static org.slf4j.Logger logger = LoggerFactory.getLogger(GameStorage.class);
+
+	private static final int DEFAULT_CAPACITY = 999;
+	// all of them can be overridden on start, e.g. -Dgame.lifetime.minutes=5
+	private static final long LIFETIME = TimeUnit.MINUTES.toMillis(Long.getLong("game.lifetime.minutes", 10));
+	private static final long FINISHED_LIFETIME = TimeUnit.SECONDS
+			.toMillis(Long.getLong("game.finished.lifetime.seconds", 30));
+	private static final long SWEEP_INTERVAL = TimeUnit.SECONDS.toMillis(Long.getLong("game.expiry.sweep.seconds", 5));
+	// deadlines are only moved if they change by at least this much
+	private static final long REFRESH_GRANULARITY = 1000;
+	private static final GameStorage instance = new GameStorage(DEFAULT_CAPACITY, createPolicy());
+
+	private final ConcurrentHashMap<String, Game> storage;
+	// guarded by itself
+	private final LinkedHashMap<String, Game> creationOrder;
+	private final int capacity;
+	private final EvictionPolicy policy;
+	private final GameExpiry expiry;
+	private final LongSupplier clock;
 
-	private GameStorage() {
-		this.storage = new ArrayList<>();
+	/**
+	 * Constructor for GameStorage, the games are indexed by their gameID in a
+	 * ConcurrentHashMap, so lookups stay constant no matter how many games are
+	 * stored, while a linked map remembers the order in which the games were
+	 * created in order to drop the oldest one when the storage is full. A game
+	 * leaves both when it is deleted or dropped, so nothing is kept alive. If an
+	 * EvictionPolicy is given, it decides when the shared GameExpiry deletes a
+	 * game and which game is dropped when the storage is full.
+	 *
+	 * @param capacity maximal number of games held at the same time
+	 * @param policy   EvictionPolicy of the storage, null if games shouldn't
+	 *                 expire
+	 */
+	GameStorage(int capacity, EvictionPolicy policy) {
+		this(capacity, policy, System::currentTimeMillis);
+	}
+
+	/**
+	 * Constructor for GameStorage that reads the time from the given clock, the
+	 * deadlines of the games are set and swept with it.
+	 *
+	 * @param capacity maximal number of games held at the same time
+	 * @param policy   EvictionPolicy of the storage, null if games shouldn't
+	 *                 expire
+	 * @param clock    current time in milliseconds
+	 */
+	GameStorage(int capacity, EvictionPolicy policy, LongSupplier clock) {
+		this.storage = new ConcurrentHashMap<>();
+		this.creationOrder = new LinkedHashMap<>();
+		this.capacity = capacity;
+		this.policy = policy;
+		this.clock = clock;
+		this.expiry = new GameExpiry(SWEEP_INTERVAL);
+		if (policy != null)
+			this.expiry.start(clock, this::expireGame);
+	}
+
+	/**
+	 * Creates the EvictionPolicy chosen with the game.eviction system property,
+	 * "fixed" deletes games a fixed time after their creation, everything else
+	 * deletes them once they have been idle or finished for too long.
+	 *
+	 * @return EvictionPolicy of the server storage
+	 */
+	private static EvictionPolicy createPolicy() {
+		if ("fixed".equals(System.getProperty("game.eviction")))
+			return new FixedLifetimePolicy(LIFETIME);
+		return new IdleTimePolicy(LIFETIME, FINISHED_LIFETIME);
 	}
 
 	/**
 	 * Get instance of the Storage
-	 * 
+	 *
 	 * @return Instance of GameStorage that holds the games on the server.
 	 */
 	public static GameStorage getStorage() {
-		if (instance == null)
-			instance = new GameStorage();
 		return instance;
 	}
 
 	/**
 	 * Method that adds a Game to the storage. If the game is already in the storage
-	 * an Exception is thrown. If the storage is full, the oldest game is removed
-	 * from the storage.
-	 * 
+	 * an Exception is thrown. If the storage is full, a game is removed from the
+	 * storage as the EvictionPolicy says.
+	 *
 	 * @param newGame Game that needs to be stored.
 	 * @throws Exception Is the game already in the storage or not
 	 */
 	public void storeGame(Game newGame) throws Exception {
-		for (Game game : this.storage) {
-			if (game.equals(newGame))
-				throw new Exception("GameID in use");
+		if (!this.storeGameIfAbsent(newGame))
+			throw new Exception("GameID in use");
+	}
+
+	/**
+	 * Method that adds a Game to the storage if its gameID isn't used yet, the
+	 * check and the adding are one atomic step, so two games can never get the same
+	 * gameID. If the storage is full, a game is removed from the storage as the
+	 * EvictionPolicy says.
+	 *
+	 * @param newGame Game that needs to be stored.
+	 * @return true if the game was stored, false if its gameID is already in use
+	 *         or the game was deleted or dropped again before it got a deadline
+	 */
+	public boolean storeGameIfAbsent(Game newGame) {
+		if (this.storage.putIfAbsent(newGame.getGameID(), newGame) != null)
+			return false;
+		synchronized (this.creationOrder) {
+			this.creationOrder.put(newGame.getGameID(), newGame);
 		}
-		if (this.storage.size() == 999)
+		// deleted while it was being stored
+		if (!this.isStored(newGame))
+			this.forget(newGame);
+		while (this.storage.size() > this.capacity)
 			this.dropOldestGame();
-		this.storage.add(newGame);
-		System.out.println("Storage size " + storage.size());
-		try {
-			ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
-			scheduler.schedule(new GameDeleter(newGame), 10, TimeUnit.MINUTES);
-		} catch(Exception e) {
-			System.out.println(e);
+		logger.debug("Storage size " + this.storage.size());
+		if (!this.isStored(newGame))
+			return false;
+		if (this.policy != null) {
+			this.expiry.schedule(newGame.getGameID(), this.policy.deadlineOnStore(newGame, this.clock.getAsLong()));
+			// deleted before its deadline was set, which then would have been kept
+			if (!this.isStored(newGame)) {
+				this.expiry.cancel(newGame.getGameID());
+				return false;
+			}
 		}
+		return true;
 	}
+
 	/**
-	 * Method that gets Game from the Storage by it's ID.
-	 * If the game doesn't exist an Exception is thrown.
+	 * Method that gets Game from the Storage by it's ID. If the game doesn't exist
+	 * an Exception is thrown. Every lookup counts as an access of the game.
+	 *
 	 * @param gameID ID of the seeked Game
 	 * @return Game with corresponding iD.
-	 * @throws Exception Thrown if the seeked game is not in the storage 
+	 * @throws Exception Thrown if the seeked game is not in the storage
 	 */
 	public Game getGameById(String gameID) throws Exception {
-		for (Game game : this.storage) {
-			if (game.getGameID().equals(gameID))
-				return game;
-		}
-		throw new Exception("Game with this ID doesn't exist");
+		Game game = this.storage.get(gameID);
+		if (game == null)
+			throw new Exception("Game with this ID doesn't exist");
+		this.touch(game);
+		return game;
 	}
+
 	/**
-	 * Method that deletes a given game from the Storage.
+	 * Method that tells the EvictionPolicy that a game has been accessed or
+	 * changed, so that its deadline can be moved.
+	 *
+	 * @param game Game that has been accessed
+	 */
+	public void touch(Game game) {
+		if (this.policy == null)
+			return;
+		long deadline = this.expiry.getDeadline(game.getGameID());
+		if (deadline == Long.MAX_VALUE)
+			return;
+		long newDeadline = this.policy.deadlineOnAccess(game, this.clock.getAsLong(), deadline);
+		if (Math.abs(newDeadline - deadline) >= REFRESH_GRANULARITY)
+			this.expiry.schedule(game.getGameID(), newDeadline);
+	}
+
+	/**
+	 * Method that deletes a given game from the Storage and from the creation
+	 * order.
+	 *
 	 * @param game Game that needs to be deleted.
 	 */
 	public void deleteGame(Game game) {
-		System.out.println("Dropping game " + game.getGameID());
-		storage.remove(game);
+		logger.debug("Dropping game " + game.getGameID());
+		if (this.storage.remove(game.getGameID(), game))
+			this.expiry.cancel(game.getGameID());
+		this.forget(game);
 	}
+
 	/**
-	 * Method that deletes the oldest Game in the storage.
+	 * Method that deletes the oldest Game in the storage, or the one with the
+	 * earliest deadline if the EvictionPolicy prefers it.
 	 */
 	public void dropOldestGame() {
-		System.out.println("Will try to delete");
-		this.storage.remove(0);
-		System.out.println("Droped  oldest game");
+		if (this.policy != null && this.policy.dropsEarliestDeadline()) {
+			String earliest;
+			while ((earliest = this.expiry.getEarliest()) != null) {
+				Game game = this.storage.get(earliest);
+				this.expiry.cancel(earliest);
+				if (game != null && this.storage.remove(earliest, game)) {
+					this.forget(game);
+					return;
+				}
+			}
+		}
+		Game oldest;
+		while ((oldest = this.pollOldest()) != null) {
+			if (this.storage.remove(oldest.getGameID(), oldest)) {
+				this.expiry.cancel(oldest.getGameID());
+				return;
+			}
+		}
 	}
+
 	/**
-	 * Method that checks if a Game with the given ID exists or not.
-	 * If it exists an Exception is thrown
+	 * Method that checks if a Game with the given ID exists or not. If it exists an
+	 * Exception is thrown
+	 *
 	 * @param gameID GameID that needs to be checked.
 	 * @throws Exception Thrown when the gameID is already in use.
 	 */
 	public void checkGameID(String gameID) throws Exception {
-		for (Game game : this.storage) {
-			if (game.getGameID().contentEquals(gameID))
-				throw new Exception("GameID in use");
+		if (this.containsGameID(gameID))
+			throw new Exception("GameID in use");
+	}
+
+	/**
+	 * Method that checks if a Game with the given ID is stored
+	 *
+	 * @param gameID GameID that needs to be checked.
+	 * @return true if the gameID is in use
+	 */
+	public boolean containsGameID(String gameID) {
+		return this.storage.containsKey(gameID);
+	}
+
+	/**
+	 * Method to get the number of games that are currently stored
+	 *
+	 * @return number of stored games
+	 */
+	public int size() {
+		return this.storage.size();
+	}
+
+	/**
+	 * Method to get the expiry that tracks the deadlines of the stored games, used
+	 * to report how many games are pending expiry and how many were evicted.
+	 *
+	 * @return GameExpiry of the storage
+	 */
+	public GameExpiry getExpiry() {
+		return this.expiry;
+	}
+
+	/**
+	 * Method that deletes every game whose deadline has passed right away instead
+	 * of waiting for the next sweep of the GameExpiry.
+	 *
+	 * @return number of deleted games
+	 */
+	int sweep() {
+		return this.expiry.sweep(this.clock.getAsLong(), this::expireGame);
+	}
+
+	/**
+	 * Called by the GameExpiry for every game whose lifetime has passed.
+	 *
+	 * @param gameID ID of the expired game
+	 */
+	private void expireGame(String gameID) {
+		Game game = this.storage.get(gameID);
+		if (game != null)
+			this.deleteGame(game);
+	}
+
+	/**
+	 * Method to get the number of games in the creation order, it never holds
+	 * more than the stored games.
+	 *
+	 * @return number of games in the creation order
+	 */
+	int getCreationOrderSize() {
+		synchronized (this.creationOrder) {
+			return this.creationOrder.size();
+		}
+	}
+
+	/**
+	 * Whether the game is the one stored under its ID
+	 *
+	 * @param game Game that was stored
+	 * @return true if the game is still in the storage
+	 */
+	private boolean isStored(Game game) {
+		return this.storage.get(game.getGameID()) == game;
+	}
+
+	/**
+	 * Removes a game from the creation order, if it is still the one stored under
+	 * its ID there.
+	 *
+	 * @param game Game that was deleted
+	 */
+	private void forget(Game game) {
+		synchronized (this.creationOrder) {
+			this.creationOrder.remove(game.getGameID(), game);
 		}
 	}
 
+	/**
+	 * Takes the oldest game out of the creation order.
+	 *
+	 * @return the oldest game, null if there is none
+	 */
+	private Game pollOldest() {
+		synchronized (this.creationOrder) {
+			Iterator<Map.Entry<String, Game>> oldest = this.creationOrder.entrySet().iterator();
+			if (!oldest.hasNext())
+				return null;
+			Game game = oldest.next().getValue();
+			oldest.remove();
+			return game;
+		}
+	}
 }
@@ -0,0 +1,192 @@
+package server.storage;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import server.game.HalfMapFingerprint;
+
+/*
+ * Index of the fingerprints of the HalfMaps sent to the server, used to find
+ * maps that were already sent in another game. A fingerprint is split into
+ * BANDS bands of fields, two maps that differ in fewer fields than there are
+ * bands have at least one band in common, so only the maps sharing a band with
+ * the new one need to be compared. The oldest fingerprints are dropped once the
+ * index is full. A band shared by many maps would make every add compare against
+ * all of them, so every band bucket only keeps its newest fingerprints. Every
+ * fingerprint added gets the next sequence number, the buckets are queues in
+ * the order of these numbers, so the oldest entry of the index is at the head of
+ * its buckets unless they already dropped it, and dropping it never has to
+ * search a bucket. The same fingerprint can be added many times, comparing the
+ * sequence numbers makes sure only the oldest of them is dropped.
+ */
+public class HalfMapIndex {
+	private static final int BANDS = 5;
+	private static final int FIELDS = 32;
+	private static final int CAPACITY = Integer.getInteger("game.halfmap.index.capacity", 10000);
+	private static final int BUCKET_CAPACITY = Integer.getInteger("game.halfmap.index.bucketCapacity", 256);
+	private static final HalfMapIndex instance = new HalfMapIndex(CAPACITY, BUCKET_CAPACITY);
+
+	private final int capacity;
+	private final int bucketCapacity;
+	private final ArrayDeque<Entry> order;
+	private final List<Map<Long, ArrayDeque<Entry>>> bands;
+	private long sequence;
+	private long nearDuplicates;
+
+	/**
+	 * Constructor for HalfMapIndex
+	 *
+	 * @param capacity maximal number of fingerprints held at the same time
+	 */
+	HalfMapIndex(int capacity) {
+		this(capacity, BUCKET_CAPACITY);
+	}
+
+	/**
+	 * Constructor for HalfMapIndex
+	 *
+	 * @param capacity       maximal number of fingerprints held at the same time
+	 * @param bucketCapacity maximal number of fingerprints that share a band
+	 */
+	HalfMapIndex(int capacity, int bucketCapacity) {
+		this.capacity = capacity;
+		this.bucketCapacity = bucketCapacity;
+		this.order = new ArrayDeque<>();
+		this.bands = new ArrayList<>(BANDS);
+		for (int band = 0; band < BANDS; band++)
+			this.bands.add(new HashMap<>());
+	}
+
+	/**
+	 * Get instance of the index
+	 *
+	 * @return Instance of HalfMapIndex that holds the HalfMaps sent to the server
+	 */
+	public static HalfMapIndex getIndex() {
+		return instance;
+	}
+
+	/**
+	 * Method that adds a fingerprint to the index and returns how close the most
+	 * similar one already indexed is. A map that differs in fewer than BANDS
+	 * fields is found as long as it is one of the newest bucketCapacity maps of a
+	 * band it shares with the new one.
+	 *
+	 * @param fingerprint fingerprint of the new HalfMap
+	 * @return the number of different fields to the closest indexed map with a
+	 *         band in common, -1 if there is none
+	 */
+	public synchronized int add(long fingerprint) {
+		int closest = -1;
+		for (int band = 0; band < BANDS; band++) {
+			ArrayDeque<Entry> candidates = this.bands.get(band).get(bandKey(fingerprint, band));
+			if (candidates == null)
+				continue;
+			for (Entry candidate : candidates) {
+				int differences = HalfMapFingerprint.differences(fingerprint, candidate.fingerprint);
+				if (closest < 0 || differences < closest)
+					closest = differences;
+			}
+		}
+		if (isNearDuplicate(closest))
+			this.nearDuplicates++;
+		Entry entry = new Entry(fingerprint, this.sequence++);
+		this.order.add(entry);
+		for (int band = 0; band < BANDS; band++) {
+			ArrayDeque<Entry> candidates = this.bands.get(band).computeIfAbsent(bandKey(fingerprint, band),
+					key -> new ArrayDeque<>());
+			candidates.add(entry);
+			if (candidates.size() > this.bucketCapacity)
+				candidates.poll();
+		}
+		while (this.order.size() > this.capacity)
+			this.remove(this.order.poll());
+		return closest;
+	}
+
+	/**
+	 * Method that tells if the result of add is a near duplicate, these are the
+	 * maps the index finds while they are still in a bucket they share with the
+	 * new map, a band shared by more than bucketCapacity newer maps drops them.
+	 *
+	 * @param differences result of add
+	 * @return true if the map differs from an indexed one in fewer than BANDS
+	 *         fields
+	 */
+	public static boolean isNearDuplicate(int differences) {
+		return differences >= 0 && differences < BANDS;
+	}
+
+	/**
+	 * Removes the oldest entry of the index from its buckets, a bucket that
+	 * already dropped it because it was full has a newer entry at its head, even
+	 * if that one has the same fingerprint.
+	 */
+	private void remove(Entry entry) {
+		for (int band = 0; band < BANDS; band++) {
+			long key = bandKey(entry.fingerprint, band);
+			ArrayDeque<Entry> candidates = this.bands.get(band).get(key);
+			if (candidates == null || candidates.peek().sequence != entry.sequence)
+				continue;
+			candidates.poll();
+			if (candidates.isEmpty())
+				this.bands.get(band).remove(key);
+		}
+	}
+
+	/**
+	 * Method to get the number of fingerprints that share a band with the given
+	 * one
+	 *
+	 * @param fingerprint fingerprint of a HalfMap
+	 * @param band        number of the band
+	 * @return number of fingerprints in the bucket of the band
+	 */
+	synchronized int getBucketSize(long fingerprint, int band) {
+		ArrayDeque<Entry> candidates = this.bands.get(band).get(bandKey(fingerprint, band));
+		return candidates == null ? 0 : candidates.size();
+	}
+
+	/**
+	 * The key of a band is the band number in the top bits and the bits of its
+	 * fields in the low bits, the fields are split as evenly as possible.
+	 */
+	private static long bandKey(long fingerprint, int band) {
+		int from = band * FIELDS / BANDS;
+		int to = (band + 1) * FIELDS / BANDS;
+		long bits = (fingerprint >>> (2 * from)) & ((1L << (2 * (to - from))) - 1);
+		return (long) band << 56 | bits;
+	}
+
+	/**
+	 * Method to get the number of fingerprints that are currently indexed
+	 *
+	 * @return number of indexed fingerprints
+	 */
+	public synchronized int size() {
+		return this.order.size();
+	}
+
+	/**
+	 * Method to get the number of HalfMaps that were near duplicates of an indexed
+	 * one when they were added
+	 *
+	 * @return number of near duplicates found
+	 */
+	public synchronized long getNearDuplicates() {
+		return this.nearDuplicates;
+	}
+
+	private static final class Entry {
+		private final long fingerprint;
+		private final long sequence;
+
+		private Entry(long fingerprint, long sequence) {
+			this.fingerprint = fingerprint;
+			this.sequence = sequence;
+		}
+	}
+}
@@ -0,0 +1,42 @@
+package server.storage;
+
+import server.game.Game;
+
+public class IdleTimePolicy implements EvictionPolicy {
+	private final long idleTime;
+	private final long finishedTime;
+
+	/**
+	 * Constructor for IdleTimePolicy, a game expires once nobody accessed it for
+	 * the idle time, every access pushes the deadline back. As soon as the game is
+	 * over it is retired after the much shorter finished time, so that finished
+	 * games don't take the place of games that are still played. When the storage
+	 * is full the game with the earliest deadline is dropped, which are the
+	 * finished games first and then the least recently used ones.
+	 *
+	 * @param idleTime     milliseconds a running game may stay without being
+	 *                     accessed
+	 * @param finishedTime milliseconds a finished game stays in the storage
+	 */
+	public IdleTimePolicy(long idleTime, long finishedTime) {
+		this.idleTime = idleTime;
+		this.finishedTime = finishedTime;
+	}
+
+	@Override
+	public long deadlineOnStore(Game game, long now) {
+		return now + this.idleTime;
+	}
+
+	@Override
+	public long deadlineOnAccess(Game game, long now, long deadline) {
+		if (game.isGameOver())
+			return Math.min(deadline, now + this.finishedTime);
+		return now + this.idleTime;
+	}
+
+	@Override
+	public boolean dropsEarliestDeadline() {
+		return true;
+	}
+}
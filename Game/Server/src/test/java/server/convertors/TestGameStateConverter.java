@@ -0,0 +1,69 @@
+package server.convertors;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import MessagesBase.PlayerRegistration;
+import MessagesGameState.GameState;
+import server.game.Game;
+import server.game.Player;
+
+public class TestGameStateConverter {
+
+	/**
+	 * Method to test that the GameState of a player is only built once per
+	 * gameStateID, polling twice without a change of the game has to return the
+	 * same object, while the opponent gets a GameState of his own.
+	 */
+	@Test
+	public void testIfGameStateIsReusedUntilTheGameChanges() throws Exception {
+		Game game = new Game("cache");
+		Player player1 = new Player(new PlayerRegistration("FName1", "LName1", "StudentID1"));
+		Player player2 = new Player(new PlayerRegistration("FName2", "LName2", "StudentID2"));
+		game.addPlayer(player1);
+		game.addPlayer(player2);
+
+		GameState first = GameStateConverter.convert(game, player1);
+		assertSame(first, GameStateConverter.convert(game, player1));
+		assertTrue(first != GameStateConverter.convert(game, player2));
+	}
+
+	/**
+	 * Method to test that a change of the game builds a new GameState with the new
+	 * gameStateID.
+	 */
+	@Test
+	public void testIfGameStateIsRebuiltAfterTheGameChanges() throws Exception {
+		Game game = new Game("rebuild");
+		Player player1 = new Player(new PlayerRegistration("FName1", "LName1", "StudentID1"));
+		game.addPlayer(player1);
+		GameState before = GameStateConverter.convert(game, player1);
+
+		game.addPlayer(new Player(new PlayerRegistration("FName2", "LName2", "StudentID2")));
+		GameState after = GameStateConverter.convert(game, player1);
+		assertTrue(before != after);
+		assertNotEquals(before.getGameStateId(), after.getGameStateId());
+		assertSame(after, GameStateConverter.convert(game, player1));
+	}
+
+	/**
+	 * Method to test that the serialized response is cached per gameStateID like
+	 * the GameState and serialized again once the game changes.
+	 */
+	@Test
+	public void testIfSerializedGameStateIsReusedUntilTheGameChanges() throws Exception {
+		Game game = new Game("bytes");
+		Player player1 = new Player(new PlayerRegistration("FName1", "LName1", "StudentID1"));
+		game.addPlayer(player1);
+
+		byte[] first = GameStateSerializer.serialize(game, player1);
+		assertTrue(first.length > 0);
+		assertSame(first, GameStateSerializer.serialize(game, player1));
+
+		game.addPlayer(new Player(new PlayerRegistration("FName2", "LName2", "StudentID2")));
+		assertTrue(first != GameStateSerializer.serialize(game, player1));
+	}
+}
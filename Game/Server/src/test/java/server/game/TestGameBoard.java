@@ -0,0 +1,233 @@
+package server.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import MessagesBase.EMove;
+import MessagesBase.ETerrain;
+import MessagesBase.HalfMap;
+import MessagesBase.HalfMapNode;
+import MessagesBase.PlayerMove;
+import MessagesBase.PlayerRegistration;
+import MessagesGameState.EFortState;
+import MessagesGameState.EPlayerGameState;
+import MessagesGameState.EPlayerPositionState;
+import MessagesGameState.ETreasureState;
+import MessagesGameState.FullMap;
+import MessagesGameState.FullMapNode;
+
+public class TestGameBoard {
+
+	/**
+	 * Method to test that a player needs as many steps as leaving his field and
+	 * entering the next one takes, grass to grass takes two, grass to mountain
+	 * three, and that changing the direction starts over.
+	 */
+	@Test
+	public void testIfStepsAreAccumulatedLikeTheClientExpects() throws Exception {
+		Player player1 = new Player(new PlayerRegistration("FName1", "LName1", "StudentID1"));
+		Player player2 = new Player(new PlayerRegistration("FName2", "LName2", "StudentID2"));
+		GameBoard board = new GameBoard(TestGameConcurrency.createValidHalfMap(player1),
+				TestGameConcurrency.createValidHalfMap(player2), new Random(1));
+		int start = board.getPosition(0);
+
+		assertEquals(GameBoard.MOVING, board.move(0, EMove.Right));
+		assertEquals(GameBoard.MOVING, board.move(0, EMove.Down));
+		assertEquals(GameBoard.MOVING, board.move(0, EMove.Right));
+		assertEquals(start, board.getPosition(0));
+		assertEquals(GameBoard.MOVED, board.move(0, EMove.Right));
+		assertEquals(start + 1, board.getPosition(0));
+
+		// (1,0) -> (1,1) grass, (1,1) -> (1,2) mountain
+		board.move(0, EMove.Down);
+		assertEquals(GameBoard.MOVED, board.move(0, EMove.Down));
+		assertEquals(GameBoard.MOVING, board.move(0, EMove.Down));
+		assertEquals(GameBoard.MOVING, board.move(0, EMove.Down));
+		assertEquals(GameBoard.MOVED, board.move(0, EMove.Down));
+		assertEquals(start + 1 + 2 * board.getWidth(), board.getPosition(0));
+	}
+
+	/**
+	 * Method to test that a step into water loses the game.
+	 */
+	@Test
+	public void testIfWalkingIntoWaterLosesTheGame() throws Exception {
+		Player player1 = new Player(new PlayerRegistration("FName1", "LName1", "StudentID1"));
+		Player player2 = new Player(new PlayerRegistration("FName2", "LName2", "StudentID2"));
+		GameBoard board = new GameBoard(TestGameConcurrency.createValidHalfMap(player1),
+				TestGameConcurrency.createValidHalfMap(player2), new Random(2));
+		for (int i = 0; i < 4; i++)
+			board.move(1, EMove.Right);
+		// (2,0) is above the water at (2,1)
+		assertEquals(GameBoard.LOST, board.move(1, EMove.Down));
+	}
+
+	/**
+	 * Method to test that the treasure is collected once the player reaches it and
+	 * that reaching the enemy fortress with it captures the fortress, with every
+	 * layout of the board.
+	 */
+	@Test
+	public void testIfTreasureAndFortressAreFound() throws Exception {
+		for (int seed = 0; seed < 20; seed++) {
+			GameBoard board = new GameBoard(createGrassRowHalfMap("p1"), createGrassRowHalfMap("p2"),
+					new Random(seed));
+			assertEquals(board.getPosition(0) + 1, board.getTreasure(0));
+			assertEquals(GameBoard.TREASURE_COLLECTED, walkTo(board, 0, board.getTreasure(0)));
+			assertTrue(board.hasCollectedTreasure(0));
+			assertEquals(GameBoard.FORT_CAPTURED, walkTo(board, 0, board.getFort(1)));
+		}
+	}
+
+	/**
+	 * Method to test that the FullMap of a player only shows his treasure after he
+	 * has seen it from a mountain, while his own fortress is always shown. The
+	 * enemy fortress and the enemy standing on it stay hidden until the player
+	 * sees them from the mountain next to it.
+	 */
+	@Test
+	public void testIfTreasureIsHiddenUntilItIsDiscovered() throws Exception {
+		GameBoard board = new GameBoard(createGrassRowHalfMap("p1"), createGrassRowHalfMap("p2"), new Random(3));
+		assertEquals(0, count(board.toFullMap(0), ETreasureState.MyTreasureIsPresent));
+		assertEquals(1, countForts(board.toFullMap(0), EFortState.MyFortPresent));
+
+		// the field below the fortress is a mountain next to the treasure
+		for (int i = 0; i < 3; i++)
+			board.move(0, EMove.Down);
+		assertEquals(board.getFort(0) + board.getWidth(), board.getPosition(0));
+		assertEquals(1, count(board.toFullMap(0), ETreasureState.MyTreasureIsPresent));
+		assertEquals(0, count(board.toFullMap(1), ETreasureState.MyTreasureIsPresent));
+		assertEquals(0, countForts(board.toFullMap(0), EFortState.EnemyFortPresent));
+		assertEquals(0, countPositions(board.toFullMap(0), EPlayerPositionState.EnemyPlayerPosition));
+
+		walkTo(board, 0, board.getFort(1) + board.getWidth());
+		assertEquals(1, countForts(board.toFullMap(0), EFortState.EnemyFortPresent));
+		assertEquals(1, countPositions(board.toFullMap(0), EPlayerPositionState.EnemyPlayerPosition));
+		// the enemy hasn't moved and still can't see anything
+		assertEquals(0, countPositions(board.toFullMap(1), EPlayerPositionState.EnemyPlayerPosition));
+	}
+
+	/**
+	 * Method to test that the enemy, who starts on his fortress, isn't shown on a
+	 * fresh board, so his position doesn't give the enemy fortress away.
+	 */
+	@Test
+	public void testIfEnemyPositionIsHiddenOnAFreshBoard() throws Exception {
+		for (int seed = 0; seed < 20; seed++) {
+			GameBoard board = new GameBoard(createGrassRowHalfMap("p1"), createGrassRowHalfMap("p2"),
+					new Random(seed));
+			for (FullMapNode node : board.toFullMap(0).getMapNodes()) {
+				boolean enemyFort = node.getY() * board.getWidth() + node.getX() == board.getFort(1);
+				assertTrue(!enemyFort || node.getPlayerPositionState() == EPlayerPositionState.NoPlayerPresent);
+			}
+			assertEquals(0, countPositions(board.toFullMap(0), EPlayerPositionState.EnemyPlayerPosition));
+			assertEquals(1, countPositions(board.toFullMap(0), EPlayerPositionState.MyPosition));
+		}
+	}
+
+	/**
+	 * Method to test that the turn goes to the opponent after every move and that
+	 * moving when the player should wait loses the game. A step that doesn't reach
+	 * the next field publishes a snapshot that shares the board of the last one.
+	 */
+	@Test
+	public void testIfTurnsAlternateAfterEveryMove() throws Exception {
+		Game game = new Game("moves");
+		Player player1 = new Player(new PlayerRegistration("FName1", "LName1", "StudentID1"));
+		Player player2 = new Player(new PlayerRegistration("FName2", "LName2", "StudentID2"));
+		game.addPlayer(player1);
+		game.addPlayer(player2);
+		Player first = player1.getPlayerGameState() == EPlayerGameState.ShouldActNext ? player1 : player2;
+		Player second = first == player1 ? player2 : player1;
+		game.addHalfMap(TestGameConcurrency.createValidHalfMap(first));
+		game.addHalfMap(TestGameConcurrency.createValidHalfMap(second, true));
+		FullMap fullMap = game.getFullMapForPlayer(first.getPlayerID().getUniquePlayerID());
+		assertEquals(64, fullMap.getMapNodes().size());
+		assertSame(fullMap, game.getFullMapForPlayer(first.getPlayerID().getUniquePlayerID()));
+
+		String before = game.getGameStateID();
+		GameSnapshot beforeMove = game.getSnapshot();
+		game.move(PlayerMove.of(first.getPlayerID(), EMove.Right));
+		assertEquals(EPlayerGameState.ShouldWait, first.getPlayerGameState());
+		assertEquals(EPlayerGameState.ShouldActNext, second.getPlayerGameState());
+		assertTrue(!before.equals(game.getGameStateID()));
+		// the first of two steps onto grass doesn't change the board, so it isn't copied
+		assertSame(beforeMove.getBoard(), game.getSnapshot().getBoard());
+		assertEquals(EPlayerGameState.ShouldWait, game.getSnapshot().getPlayerGameState(first));
+
+		try {
+			game.move(PlayerMove.of(first.getPlayerID(), EMove.Right));
+		} catch (Exception e) {
+			// expected, the player should have waited
+		}
+		assertTrue(game.isGameOver());
+		assertEquals(EPlayerGameState.Lost, first.getPlayerGameState());
+		assertEquals(EPlayerGameState.Won, second.getPlayerGameState());
+	}
+
+	private static int count(FullMap fullMap, ETreasureState state) {
+		int count = 0;
+		for (FullMapNode node : fullMap.getMapNodes()) {
+			if (node.getTreasureState() == state)
+				count++;
+		}
+		return count;
+	}
+
+	private static int countPositions(FullMap fullMap, EPlayerPositionState state) {
+		int count = 0;
+		for (FullMapNode node : fullMap.getMapNodes()) {
+			if (node.getPlayerPositionState() == state)
+				count++;
+		}
+		return count;
+	}
+
+	private static int countForts(FullMap fullMap, EFortState state) {
+		int count = 0;
+		for (FullMapNode node : fullMap.getMapNodes()) {
+			if (node.getFortState() == state)
+				count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Walks straight to a field, first horizontally then vertically, and returns
+	 * the result of the last step.
+	 */
+	private static int walkTo(GameBoard board, int player, int target) {
+		int result = GameBoard.MOVED;
+		while (board.getPosition(player) != target) {
+			int position = board.getPosition(player);
+			int dx = target % board.getWidth() - position % board.getWidth();
+			int dy = target / board.getWidth() - position / board.getWidth();
+			EMove direction = dx > 0 ? EMove.Right : dx < 0 ? EMove.Left : dy > 0 ? EMove.Down : EMove.Up;
+			result = board.move(player, direction);
+			assertTrue(result != GameBoard.LOST);
+		}
+		return result;
+	}
+
+	/**
+	 * HalfMap with the fortress at (0,0), grass at (1,0) and mountains everywhere
+	 * else, so the treasure can only be at (1,0).
+	 */
+	private static HalfMap createGrassRowHalfMap(String playerID) {
+		List<HalfMapNode> nodes = new ArrayList<>();
+		for (int y = 0; y < 4; y++) {
+			for (int x = 0; x < 8; x++) {
+				ETerrain terrain = y == 0 && x < 2 ? ETerrain.Grass : ETerrain.Mountain;
+				nodes.add(new HalfMapNode(x, y, x == 0 && y == 0, terrain));
+			}
+		}
+		return new HalfMap(playerID, nodes);
+	}
+}
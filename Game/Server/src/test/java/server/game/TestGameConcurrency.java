@@ -0,0 +1,183 @@
+package server.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+
+import MessagesBase.ETerrain;
+import MessagesBase.HalfMap;
+import MessagesBase.HalfMapNode;
+import MessagesBase.PlayerRegistration;
+import MessagesGameState.EPlayerGameState;
+
+public class TestGameConcurrency {
+	private static final int GAMES = 500;
+	private static final int THREADS = 4;
+
+	/**
+	 * Method to test that a listener of the game is called with every new snapshot,
+	 * which is what wakes up parked state polls, and that it isn't called anymore
+	 * once it has been removed.
+	 */
+	@Test
+	public void testListenersAreToldAboutEveryChange() throws Exception {
+		Game game = new Game("listeners");
+		List<String> seen = new ArrayList<>();
+		Consumer<GameSnapshot> listener = snapshot -> seen.add(snapshot.getGameStateID());
+		game.addListener(listener);
+		game.addPlayer(new Player(new PlayerRegistration("FName1", "LName1", "StudentID1")));
+		assertEquals(1, seen.size());
+		assertEquals(game.getGameStateID(), seen.get(0));
+
+		game.removeListener(listener);
+		game.addPlayer(new Player(new PlayerRegistration("FName2", "LName2", "StudentID2")));
+		assertEquals(1, seen.size());
+		assertEquals(0, game.getListenerCount());
+	}
+
+	/**
+	 * Stress test for the registration, for every game four threads try to
+	 * register a player at the same time. Exactly two registrations have to
+	 * succeed and the published snapshot has to contain both players with
+	 * exactly one of them acting next.
+	 */
+	@Test
+	public void testNoRegistrationIsLostWhenPlayersRegisterConcurrently() throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		for (int g = 0; g < GAMES; g++) {
+			Game game = new Game("stress" + g);
+			AtomicInteger registered = new AtomicInteger();
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<?>> results = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++) {
+				results.add(pool.submit(() -> {
+					start.await();
+					try {
+						game.addPlayer(new Player(new PlayerRegistration("First", "Last", "ID")));
+						registered.incrementAndGet();
+					} catch (Exception e) {
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> result : results)
+				result.get();
+			assertEquals(2, registered.get());
+			assertEquals(2, game.getSnapshot().getPlayers().size());
+			assertEquals(1, countPlayersIn(game.getSnapshot(), EPlayerGameState.ShouldActNext));
+		}
+		pool.shutdown();
+	}
+
+	/**
+	 * Stress test for the snapshots, while two threads send the HalfMaps of both
+	 * players, a reader thread keeps reading the snapshot of the game. Every
+	 * snapshot it sees has to be consistent: while the game is running exactly
+	 * one player acts next and the FullMap exists only after both HalfMaps have
+	 * been sent, once the game is over exactly one player has lost.
+	 */
+	@Test
+	public void testSnapshotsAreNeverTornWhileHalfMapsAreSent() throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(3);
+		AtomicInteger tornStates = new AtomicInteger();
+		for (int g = 0; g < GAMES; g++) {
+			Game game = new Game("torn" + g);
+			Player first = new Player(new PlayerRegistration("First", "Last", "ID1"));
+			Player second = new Player(new PlayerRegistration("First", "Last", "ID2"));
+			game.addPlayer(first);
+			game.addPlayer(second);
+			AtomicBoolean running = new AtomicBoolean(true);
+			Future<?> reader = pool.submit(() -> {
+				while (running.get()) {
+					if (!isConsistent(game.getSnapshot()))
+						tornStates.incrementAndGet();
+				}
+			});
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<?>> writers = new ArrayList<>();
+			for (Player player : game.getPlayers()) {
+				writers.add(pool.submit(() -> {
+					start.await();
+					for (int attempt = 0; attempt < 1000 && !game.isGameOver(); attempt++) {
+						if (game.getSnapshot().getPlayerGameState(player) == EPlayerGameState.ShouldActNext) {
+							game.addHalfMap(createValidHalfMap(player, player == second));
+							break;
+						}
+						Thread.yield();
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> writer : writers)
+				writer.get();
+			running.set(false);
+			reader.get();
+			assertEquals(2, game.getHalfMaps().size());
+			assertTrue(isConsistent(game.getSnapshot()));
+		}
+		pool.shutdown();
+		assertEquals(0, tornStates.get());
+	}
+
+	private static boolean isConsistent(GameSnapshot snapshot) {
+		if (snapshot.getPlayers().size() != 2)
+			return false;
+		if (snapshot.isGameOver())
+			return countPlayersIn(snapshot, EPlayerGameState.Lost) == 1
+					&& countPlayersIn(snapshot, EPlayerGameState.Won) == 1;
+		boolean fullMapPresent = snapshot.getFullMapForPlayer(
+				snapshot.getPlayers().get(0).getPlayerID().getUniquePlayerID()) != null;
+		return countPlayersIn(snapshot, EPlayerGameState.ShouldActNext) == 1
+				&& fullMapPresent == (snapshot.getHalfMaps().size() == 2);
+	}
+
+	private static int countPlayersIn(GameSnapshot snapshot, EPlayerGameState state) {
+		int count = 0;
+		for (Player player : snapshot.getPlayers()) {
+			if (snapshot.getPlayerGameState(player) == state)
+				count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Creates a valid 8x4 HalfMap: grass everywhere, the fortress in the top left
+	 * corner, water and mountains placed inside the map so no island is created.
+	 */
+	public static HalfMap createValidHalfMap(Player player) {
+		return createValidHalfMap(player, false);
+	}
+
+	/**
+	 * The mirrored map is valid as well and different enough from the other one
+	 * to be sent by the opponent. The benchmarks build their maps with it too.
+	 */
+	public static HalfMap createValidHalfMap(Player player, boolean mirrored) {
+		List<HalfMapNode> nodes = new ArrayList<>();
+		for (int y = 0; y < 4; y++) {
+			for (int x = 0; x < 8; x++) {
+				ETerrain terrain = ETerrain.Grass;
+				if ((x == 2 || x == 3) && y == 1 || (x == 4 || x == 5) && y == 2)
+					terrain = ETerrain.Water;
+				if (x == 1 && y == 2 || x == 6 && y == 1 || x == 3 && y == 3)
+					terrain = ETerrain.Mountain;
+				int placedX = mirrored ? 7 - x : x;
+				nodes.add(new HalfMapNode(placedX, y, x == 0 && y == 0, terrain));
+			}
+		}
+		return new HalfMap(player.getPlayerID(), nodes);
+	}
+}
@@ -0,0 +1,195 @@
+package server.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Test;
+
+import MessagesBase.ETerrain;
+import MessagesBase.HalfMap;
+import MessagesBase.HalfMapNode;
+import MessagesBase.PlayerRegistration;
+
+public class TestMapValidator {
+
+	/**
+	 * Method to test that a valid HalfMap has no violations.
+	 */
+	@Test
+	public void testIfValidHalfMapHasNoViolations() {
+		Player player = new Player(new PlayerRegistration("FName1", "LName1", "StudentID1"));
+		assertTrue(MapValidator.validate(TestGameConcurrency.createValidHalfMap(player)).isEmpty());
+	}
+
+	/**
+	 * Method to test that every broken rule is reported, not only the first one.
+	 * The map has no fortress, water on three fields of the left border, only two
+	 * mountains and an island in the corner.
+	 */
+	@Test
+	public void testIfEveryViolationIsReported() {
+		List<HalfMapNode> nodes = new ArrayList<>();
+		for (int y = 0; y < 4; y++) {
+			for (int x = 0; x < 8; x++) {
+				ETerrain terrain = ETerrain.Grass;
+				if (x == 0 && y > 0 || x == 1 && y == 0 || x == 6 && y == 2)
+					terrain = ETerrain.Water;
+				if (x == 4 && (y == 1 || y == 2))
+					terrain = ETerrain.Mountain;
+				nodes.add(new HalfMapNode(x, y, false, terrain));
+			}
+		}
+		List<MapViolation> violations = MapValidator.validate(new HalfMap("player", nodes));
+		assertEquals(4, violations.size(), violations.toString());
+		assertEquals(MapViolation.Rule.Fortress, violations.get(0).getRule());
+		assertEquals(MapViolation.Rule.Border, violations.get(1).getRule());
+		assertEquals(MapViolation.Rule.Quantity, violations.get(2).getRule());
+		assertEquals(MapViolation.Rule.Islands, violations.get(3).getRule());
+	}
+
+	/**
+	 * Method to test that the batch validation gives every HalfMap the same
+	 * verdict validate gives it, exactly once.
+	 */
+	@Test
+	public void testIfBatchValidationGivesEveryHalfMapItsVerdict() throws Exception {
+		Player player = new Player(new PlayerRegistration("FName1", "LName1", "StudentID1"));
+		List<HalfMap> halfMaps = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			HalfMap valid = TestGameConcurrency.createValidHalfMap(player, i % 2 == 0);
+			if (i % 3 == 0) {
+				List<HalfMapNode> nodes = new ArrayList<>(valid.getNodes());
+				nodes.remove(i % nodes.size());
+				valid = new HalfMap("player", nodes);
+			}
+			halfMaps.add(valid);
+		}
+		Map<Integer, List<MapViolation>> verdicts = new ConcurrentHashMap<>();
+		MapValidator.validateAll(halfMaps, (index, violations) -> {
+			if (verdicts.put(index, violations) != null)
+				throw new AssertionError("verdict for " + index + " sent twice");
+		}).get();
+		assertEquals(halfMaps.size(), verdicts.size());
+		for (int i = 0; i < halfMaps.size(); i++)
+			assertEquals(i % 3 != 0, verdicts.get(i).isEmpty(), "verdict of " + i);
+	}
+
+	/**
+	 * Method to test that nodes outside of the map or sent twice are reported.
+	 */
+	@Test
+	public void testIfMisplacedNodesAreReported() {
+		Player player = new Player(new PlayerRegistration("FName1", "LName1", "StudentID1"));
+		List<HalfMapNode> nodes = new ArrayList<>(TestGameConcurrency.createValidHalfMap(player).getNodes());
+		nodes.set(5, new HalfMapNode(8, 0, false, ETerrain.Grass));
+		nodes.set(6, new HalfMapNode(0, 3, false, ETerrain.Grass));
+		List<MapViolation> violations = MapValidator.validate(new HalfMap("player", nodes));
+		assertEquals(2, violations.size(), violations.toString());
+		assertEquals(MapViolation.Rule.Placement, violations.get(0).getRule());
+		assertEquals(MapViolation.Rule.Placement, violations.get(1).getRule());
+	}
+
+	/**
+	 * Method to test that the fingerprint only depends on the coordinates of the
+	 * nodes and not on the order they are sent in, and that it counts the fields
+	 * with different terrain.
+	 */
+	@Test
+	public void testIfFingerprintIsIndependentOfNodeOrder() throws Exception {
+		Player player = new Player(new PlayerRegistration("FName1", "LName1", "StudentID1"));
+		HalfMap halfMap = TestGameConcurrency.createValidHalfMap(player);
+		List<HalfMapNode> shuffled = new ArrayList<>(halfMap.getNodes());
+		Collections.shuffle(shuffled, new java.util.Random(4));
+		long fingerprint = HalfMapFingerprint.of(halfMap);
+		assertEquals(fingerprint, HalfMapFingerprint.of(new HalfMap("player", shuffled)));
+		assertEquals(0, HalfMapFingerprint.differences(fingerprint, fingerprint));
+
+		long mirrored = HalfMapFingerprint.of(TestGameConcurrency.createValidHalfMap(player, true));
+		assertEquals(14, HalfMapFingerprint.differences(fingerprint, mirrored));
+		MapValidator.compareHalfMaps(fingerprint, mirrored);
+		try {
+			MapValidator.compareHalfMaps(fingerprint, fingerprint);
+			throw new AssertionError("identical HalfMaps have to be rejected");
+		} catch (Exception e) {
+			assertTrue(e.getMessage().contains("too similiar"));
+		}
+	}
+
+	/**
+	 * Method to test the flood fill on grids of different sizes, the same scratch
+	 * space is reused for all of them.
+	 */
+	@Test
+	public void testIfIslandsAreFoundOnAnySizeOfGrid() {
+		MapValidator.FloodFill fill = new MapValidator.FloodFill();
+		assertTrue(isConnected(fill, new String[] { "LLLL", "WWWL", "LLLL" }));
+		assertFalse(isConnected(fill, new String[] { "LLWL", "LLWL", "WWWL" }));
+		// water in the first field mustn't be taken as start of the fill
+		assertTrue(isConnected(fill, new String[] { "WLLLLLLL", "LLLLLLLL", "LLLLLLLL", "LLLLLLLW" }));
+
+		// a long snake through a big grid would have been too deep for recursion
+		String[] snake = new String[201];
+		for (int y = 0; y < snake.length; y++) {
+			StringBuilder row = new StringBuilder();
+			for (int x = 0; x < 300; x++)
+				row.append(y % 2 == 0 || x == (y % 4 == 1 ? 299 : 0) ? 'L' : 'W');
+			snake[y] = row.toString();
+		}
+		assertTrue(isConnected(fill, snake));
+		snake[200] = snake[200].substring(0, 150) + 'W' + snake[200].substring(151);
+		assertFalse(isConnected(fill, snake));
+	}
+
+	/**
+	 * Method to test that a map bigger than 64 fields is validated like a HalfMap,
+	 * a 16x8 map with a wall of water cut it in two halves, once the wall has a
+	 * gap the map is valid. A node sent twice is found in the second word of the
+	 * bits as well.
+	 */
+	@Test
+	public void testIfMapsBiggerThan64FieldsAreValidated() {
+		List<HalfMapNode> nodes = new ArrayList<>();
+		for (int y = 0; y < 8; y++) {
+			for (int x = 0; x < 16; x++) {
+				ETerrain terrain = x == 8 && y > 0 && y < 7 ? ETerrain.Water : ETerrain.Grass;
+				if (x == 3 && y == 3 || x == 5 && y == 5 || x == 12 && y == 4)
+					terrain = ETerrain.Mountain;
+				nodes.add(new HalfMapNode(x, y, x == 1 && y == 1, terrain));
+			}
+		}
+		assertTrue(MapValidator.validate(new HalfMap("player", nodes), 16, 8).isEmpty());
+
+		nodes.set(8, new HalfMapNode(8, 0, false, ETerrain.Water));
+		nodes.set(7 * 16 + 8, new HalfMapNode(8, 7, false, ETerrain.Mountain));
+		nodes.set(7 * 16 + 9, new HalfMapNode(9, 7, false, ETerrain.Water));
+		nodes.set(7 * 16 + 7, new HalfMapNode(7, 7, false, ETerrain.Water));
+		List<MapViolation> violations = MapValidator.validate(new HalfMap("player", nodes), 16, 8);
+		assertEquals(1, violations.size(), violations.toString());
+		assertEquals(MapViolation.Rule.Islands, violations.get(0).getRule());
+
+		nodes.set(100, new HalfMapNode(2, 7, false, ETerrain.Grass));
+		violations = MapValidator.validate(new HalfMap("player", nodes), 16, 8);
+		assertEquals(1, violations.size(), violations.toString());
+		assertEquals(MapViolation.Rule.Placement, violations.get(0).getRule());
+	}
+
+	private static boolean isConnected(MapValidator.FloodFill fill, String[] rows) {
+		int width = rows[0].length();
+		long[] land = fill.clear(width * rows.length);
+		for (int y = 0; y < rows.length; y++) {
+			for (int x = 0; x < width; x++) {
+				int index = y * width + x;
+				if (rows[y].charAt(x) == 'L')
+					land[index >>> 6] |= 1L << index;
+			}
+		}
+		return fill.isConnected(width, rows.length);
+	}
+}
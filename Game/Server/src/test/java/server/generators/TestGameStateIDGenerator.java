@@ -0,0 +1,40 @@
+package server.generators;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+public class TestGameStateIDGenerator {
+
+	/**
+	 * Method to test that the gameStateIDs of a game never repeat and keep the
+	 * format of 15 alphanumeric characters, also after the version needs more
+	 * than one digit.
+	 */
+	@Test
+	public void testIfGameStateIDsOfAGameAreUnique() {
+		GameStateIDGenerator generator = new GameStateIDGenerator();
+		Set<String> gameStateIDs = new HashSet<>();
+		for (int i = 0; i < 10000; i++) {
+			String gameStateID = generator.generate();
+			assertEquals(15, gameStateID.length());
+			assertTrue(gameStateID.matches("[A-Za-z0-9]+"));
+			assertTrue(gameStateIDs.add(gameStateID), "repeated " + gameStateID);
+		}
+		assertEquals(10000, generator.getVersion());
+	}
+
+	/**
+	 * Method to test that two games don't start with the same gameStateID, so a
+	 * stale ETag of a deleted game doesn't match a new game.
+	 */
+	@Test
+	public void testIfGamesStartWithDifferentGameStateIDs() {
+		assertNotEquals(new GameStateIDGenerator().generate(), new GameStateIDGenerator().generate());
+	}
+}
@@ -0,0 +1,80 @@
+package server.main;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import MessagesBase.PlayerRegistration;
+import server.game.Game;
+import server.game.Player;
+
+public class TestGameStateStream {
+
+	/**
+	 * Method to test that a stream sends the current GameState right away and the
+	 * new one after every change of the game, with the gameStateID as id, and that
+	 * it stops listening once it is completed.
+	 */
+	@Test
+	public void testIfEveryChangeOfTheGameIsStreamed() throws Exception {
+		Game game = new Game("stream");
+		Player player1 = new Player(new PlayerRegistration("FName1", "LName1", "StudentID1"));
+		game.addPlayer(player1);
+		int open = GameStateStream.getOpenStreams();
+
+		RecordingEmitter emitter = new RecordingEmitter();
+		new GameStateStream(game, player1, emitter).open();
+		assertEquals(open + 1, GameStateStream.getOpenStreams());
+		assertEquals(1, game.getListenerCount());
+		waitForEvents(emitter.ids, 1);
+		assertEquals(game.getGameStateID(), emitter.ids.get(0));
+
+		game.addPlayer(new Player(new PlayerRegistration("FName2", "LName2", "StudentID2")));
+		waitForEvents(emitter.ids, 2);
+		assertEquals(game.getGameStateID(), emitter.ids.get(emitter.ids.size() - 1));
+
+		emitter.completion.run();
+		assertEquals(open, GameStateStream.getOpenStreams());
+		assertEquals(0, game.getListenerCount());
+	}
+
+	private static void waitForEvents(List<String> ids, int count) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (ids.size() < count && System.currentTimeMillis() < deadline)
+			Thread.sleep(5);
+		assertTrue(ids.size() >= count, "expected " + count + " events, got " + ids.size());
+	}
+
+	/*
+	 * Keeps the id of every event instead of writing it to a response, and the
+	 * completion callback the stream registers, so the test can complete the
+	 * stream the way spring does.
+	 */
+	private static class RecordingEmitter extends SseEmitter {
+		private final List<String> ids = new CopyOnWriteArrayList<>();
+		private volatile Runnable completion;
+
+		@Override
+		public void send(SseEventBuilder builder) throws IOException {
+			for (DataWithMediaType part : builder.build()) {
+				for (String line : String.valueOf(part.getData()).split("\n")) {
+					if (line.startsWith("id:"))
+						this.ids.add(line.substring(3));
+				}
+			}
+		}
+
+		@Override
+		public synchronized void onCompletion(Runnable callback) {
+			super.onCompletion(callback);
+			this.completion = callback;
+		}
+	}
+}
@@ -0,0 +1,210 @@
+package server.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import server.game.Game;
+
+public class TestGameStorage {
+
+	/**
+	 * Method to test that when the storage is full the oldest game is dropped
+	 * first, the storage is created with a capacity of 3 and 4 games are stored.
+	 * The first game shouldn't be found anymore while the other three should.
+	 */
+	@Test
+	public void testIfOldestGameIsDroppedWhenStorageIsFull() throws Exception {
+		GameStorage storage = new GameStorage(3, null);
+		for (int i = 0; i < 4; i++)
+			storage.storeGame(new Game("game" + i));
+		assertEquals(3, storage.size());
+		assertThrows(Exception.class, () -> storage.getGameById("game0"));
+		for (int i = 1; i < 4; i++)
+			assertEquals("game" + i, storage.getGameById("game" + i).getGameID());
+	}
+
+	/**
+	 * Method to test that a gameID can only be stored once, the second game with
+	 * the same gameID is rejected and the first one stays in the storage.
+	 */
+	@Test
+	public void testIfAGameIDInUseIsNotStoredTwice() throws Exception {
+		GameStorage storage = new GameStorage(10, null);
+		Game first = new Game("game");
+		assertTrue(storage.storeGameIfAbsent(first));
+		assertFalse(storage.storeGameIfAbsent(new Game("game")));
+		assertThrows(Exception.class, () -> storage.storeGame(new Game("game")));
+		assertSame(first, storage.getGameById("game"));
+		assertEquals(1, storage.size());
+	}
+
+	/**
+	 * Method to test that a game that is dropped again right away, because the
+	 * storage has no room for it, doesn't get a deadline that would be left
+	 * behind.
+	 */
+	@Test
+	public void testIfADroppedGameGetsNoDeadline() throws Exception {
+		GameStorage storage = new GameStorage(0, new IdleTimePolicy(60_000, 5_000), () -> 0L);
+		storage.getExpiry().stop();
+		assertFalse(storage.storeGameIfAbsent(new Game("dropped")));
+		assertEquals(0, storage.size());
+		assertEquals(0, storage.getExpiry().getPendingExpiry());
+		assertEquals(Long.MAX_VALUE, storage.getExpiry().getDeadline("dropped"));
+	}
+
+	/**
+	 * Method to test that a deleted game is skipped when the oldest game is
+	 * dropped, so that a game that is still alive doesn't get dropped twice.
+	 */
+	@Test
+	public void testIfDeletedGameIsSkippedWhenDroppingOldest() throws Exception {
+		GameStorage storage = new GameStorage(2, null);
+		Game first = new Game("first");
+		storage.storeGame(first);
+		storage.storeGame(new Game("second"));
+		storage.deleteGame(first);
+		storage.storeGame(new Game("third"));
+		storage.storeGame(new Game("fourth"));
+		assertEquals(2, storage.size());
+		assertThrows(Exception.class, () -> storage.getGameById("second"));
+		storage.getGameById("third");
+		storage.getGameById("fourth");
+	}
+
+	/**
+	 * Method to test that games that expire behind a game that lives on are
+	 * removed from the creation order as well, so it never holds more games than
+	 * the storage.
+	 */
+	@Test
+	public void testIfExpiredGamesLeaveTheCreationOrder() throws Exception {
+		GameStorage storage = new GameStorage(100, null);
+		storage.storeGame(new Game("longLived"));
+		for (int i = 0; i < 50; i++) {
+			Game game = new Game("expired" + i);
+			storage.storeGame(game);
+			storage.deleteGame(game);
+		}
+		assertEquals(1, storage.size());
+		assertEquals(1, storage.getCreationOrderSize());
+		storage.dropOldestGame();
+		assertEquals(0, storage.size());
+		assertEquals(0, storage.getCreationOrderSize());
+	}
+
+	/**
+	 * Method to test that games stored and deleted from several threads at once
+	 * are neither lost nor duplicated. Every thread stores its own games and
+	 * deletes every second one of them.
+	 */
+	@Test
+	public void testConcurrentStoreAndDelete() throws Exception {
+		GameStorage storage = new GameStorage(1_000_000, null);
+		int threads = 8;
+		int gamesPerThread = 5_000;
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		List<Future<?>> results = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			final int thread = t;
+			results.add(pool.submit(() -> {
+				for (int i = 0; i < gamesPerThread; i++) {
+					Game game = new Game(thread + "-" + i);
+					storage.storeGame(game);
+					if (i % 2 == 0)
+						storage.deleteGame(game);
+				}
+				return null;
+			}));
+		}
+		for (Future<?> result : results)
+			result.get();
+		pool.shutdown();
+		assertEquals(threads * gamesPerThread / 2, storage.size());
+		assertEquals(storage.size(), storage.getCreationOrderSize());
+		assertThrows(Exception.class, () -> storage.storeGame(new Game("0-1")));
+	}
+
+	/**
+	 * Method to test that the expiry evicts every game whose deadline has passed in
+	 * one sweep and that it reports the pending and evicted games correctly.
+	 */
+	@Test
+	public void testIfExpiredGamesAreEvictedInOneSweep() throws Exception {
+		GameStorage storage = new GameStorage(10, null);
+		GameExpiry expiry = storage.getExpiry();
+		for (int i = 0; i < 5; i++) {
+			storage.storeGame(new Game("expiring" + i));
+			expiry.schedule("expiring" + i, 1000 + i);
+		}
+		assertEquals(5, expiry.getPendingExpiry());
+		assertEquals(3, expiry.sweep(1002, gameID -> storage.deleteGame(new Game(gameID))));
+		assertEquals(2, storage.size());
+		assertEquals(2, expiry.getPendingExpiry());
+		assertEquals(3, expiry.getEvictedCount());
+		expiry.schedule("expiring3", 5000);
+		assertEquals(1, expiry.sweep(4999, gameID -> storage.deleteGame(new Game(gameID))));
+		storage.getGameById("expiring3");
+	}
+
+	/**
+	 * Method to test the IdleTimePolicy, when the storage is full the finished
+	 * game has to be dropped first even though it is not the oldest one, after
+	 * that the game that wasn't accessed for the longest time. The storage reads
+	 * the time from a clock of the test, so the games age without waiting, and
+	 * the game that wasn't accessed expires once the clock reaches its deadline.
+	 */
+	@Test
+	public void testIfFinishedAndLeastRecentlyUsedGamesAreDroppedFirst() throws Exception {
+		AtomicLong clock = new AtomicLong();
+		GameStorage storage = new GameStorage(3, new IdleTimePolicy(60_000, 5_000), clock::get);
+		storage.getExpiry().stop();
+		storage.storeGame(new Game("oldest"));
+		clock.addAndGet(5);
+		storage.storeGame(new Game("finished"));
+		clock.addAndGet(5);
+		storage.storeGame(new Game("idle"));
+		Game finished = storage.getGameById("finished");
+		finished.lostGame("nobody");
+		storage.touch(finished);
+		assertEquals(clock.get() + 5_000, storage.getExpiry().getDeadline("finished"));
+		storage.storeGame(new Game("newest"));
+		assertThrows(Exception.class, () -> storage.getGameById("finished"));
+		clock.addAndGet(1_100);
+		storage.getGameById("oldest");
+		storage.storeGame(new Game("latest"));
+		assertThrows(Exception.class, () -> storage.getGameById("idle"));
+		storage.getGameById("oldest");
+		clock.set(storage.getExpiry().getDeadline("newest"));
+		assertEquals(1, storage.sweep());
+		assertThrows(Exception.class, () -> storage.getGameById("newest"));
+		assertEquals(2, storage.size());
+	}
+
+	/**
+	 * Method to test that every game of a storage holding many games is found by
+	 * its gameID. How long a lookup takes with a growing storage is measured by
+	 * StorageBenchmark.
+	 */
+	@Test
+	public void testIfEveryGameIsFoundInABigStorage() throws Exception {
+		GameStorage storage = new GameStorage(10_000, null);
+		for (int i = 0; i < 10_000; i++)
+			storage.storeGame(new Game("load" + i));
+		assertEquals(10_000, storage.size());
+		for (int i = 0; i < 10_000; i++)
+			assertEquals("load" + i, storage.getGameById("load" + i).getGameID());
+	}
+}
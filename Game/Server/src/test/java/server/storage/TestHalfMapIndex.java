@@ -0,0 +1,100 @@
+package server.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class TestHalfMapIndex {
+
+	/**
+	 * Method to test that a map differing in up to four fields from an indexed one
+	 * is always found, no matter which fields differ, while unrelated maps aren't
+	 * counted as near duplicates.
+	 */
+	@Test
+	public void testIfNearDuplicatesAreFound() {
+		Random random = new Random(5);
+		HalfMapIndex index = new HalfMapIndex(1000);
+		long original = randomFingerprint(random);
+		assertEquals(-1, index.add(original));
+		for (int i = 0; i < 200; i++) {
+			long changed = original;
+			int changes = 1 + random.nextInt(4);
+			for (int change = 0; change < changes; change++) {
+				int field = random.nextInt(32);
+				changed = changed & ~(3L << 2 * field) | (long) (1 + random.nextInt(2)) << 2 * field;
+			}
+			int differences = index.add(changed);
+			assertTrue(differences >= 0 && differences <= changes, "changed " + changes + " found " + differences);
+		}
+		assertEquals(200, index.getNearDuplicates());
+	}
+
+	/**
+	 * Method to test that the oldest fingerprints are dropped once the index is
+	 * full.
+	 */
+	@Test
+	public void testIfOldestFingerprintIsDroppedWhenFull() {
+		HalfMapIndex index = new HalfMapIndex(2);
+		index.add(0L);
+		index.add(0x5555555555555555L);
+		index.add(0xAAAAAAAAAAAAAAAAL);
+		assertEquals(2, index.size());
+		// the map of grass only is gone, so an identical one isn't found anymore
+		assertEquals(-1, index.add(0L));
+	}
+
+	/**
+	 * Method to test that a band shared by many maps only keeps the newest
+	 * fingerprints, while the index itself still holds all of them and drops
+	 * them in order.
+	 */
+	@Test
+	public void testIfBucketsKeepOnlyTheNewestFingerprints() {
+		HalfMapIndex index = new HalfMapIndex(10, 3);
+		// the first band covers the first 6 fields, these maps only differ after it
+		for (long i = 0; i < 10; i++)
+			index.add(i << 40);
+		assertEquals(10, index.size());
+		assertEquals(3, index.getBucketSize(0L, 0));
+		assertEquals(0, index.add(9L << 40));
+		assertEquals(10, index.size());
+		assertEquals(3, index.getBucketSize(0L, 0));
+		// the first map was dropped, an identical one isn't found anymore
+		assertEquals(1, index.add(0L));
+	}
+
+	/**
+	 * Method to test that a map sent again and again is still found once the
+	 * index drops the oldest copies of it, the buckets already dropped these
+	 * copies themselves, so the newer copies must stay in the buckets.
+	 */
+	@Test
+	public void testIfRepeatedFingerprintsStayInFullBuckets() {
+		long repeated = 0L;
+		long other = 0x5555555555555555L;
+		HalfMapIndex index = new HalfMapIndex(5, 2);
+		for (int i = 0; i < 5; i++)
+			index.add(repeated);
+		for (int i = 0; i < 3; i++) {
+			index.add(other);
+			assertEquals(5, index.size());
+			for (int band = 0; band < 5; band++)
+				assertEquals(2, index.getBucketSize(repeated, band));
+		}
+		assertEquals(0, index.add(repeated));
+		for (int band = 0; band < 5; band++)
+			assertEquals(2, index.getBucketSize(repeated, band));
+	}
+
+	private static long randomFingerprint(Random random) {
+		long fingerprint = 0;
+		for (int field = 0; field < 32; field++)
+			fingerprint |= (long) random.nextInt(3) << 2 * field;
+		return fingerprint;
+	}
+}